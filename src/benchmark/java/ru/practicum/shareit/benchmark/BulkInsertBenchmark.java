@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.dto.ItemImportFormat;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+    static final int ITEMS = 1000;
+
+    ConfigurableApplicationContext context;
+    ItemRepository itemRepository;
+    TransactionTemplate transactionTemplate;
+    ItemService itemService;
+    byte[] csv;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("ci")
+                .run("--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        new DataSeeder(context.getBean(JdbcTemplate.class), 1, 0, 0).seed();
+        itemRepository = context.getBean(ItemRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        itemService = context.getBean(ItemService.class);
+        StringBuilder body = new StringBuilder("name,description,available\n");
+        for (int i = 0; i < ITEMS; i++) {
+            body.append("item ").append(i).append(",imported item,true\n");
+        }
+        csv = body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public int saveItems() {
+        List<Item> batch = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            batch.add(Item.builder().name("item " + i).description("imported item").available(true)
+                    .ownerId(1L).build());
+        }
+        return transactionTemplate.execute(status -> itemRepository.saveAll(batch).size());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public long importItems() {
+        return itemService.importItems(1L, ItemImportFormat.CSV, new ByteArrayInputStream(csv)).getImported();
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ru.practicum.shareit.booking.model.BookingPhase;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class DataSeeder {
+    static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int users;
+    private final int itemsPerUser;
+    private final int bookingsPerItem;
+    private final Random random = new Random(42);
+
+    public DataSeeder(JdbcTemplate jdbcTemplate, int users, int itemsPerUser, int bookingsPerItem) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.users = users;
+        this.itemsPerUser = itemsPerUser;
+        this.bookingsPerItem = bookingsPerItem;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getItems() {
+        return users * itemsPerUser;
+    }
+
+    public long getOwnerId(long itemId) {
+        return (itemId - 1) / itemsPerUser + 1;
+    }
+
+    public void seed() {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= users; id++) {
+            rows.add(new Object[]{id, "user" + id, "user" + id + "@shareit.ru"});
+            flushIfFull("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", rows);
+        }
+        flush("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", rows);
+
+        String insertItem = "INSERT INTO items (id, name, description, available, owner_id) VALUES (?, ?, ?, ?, ?)";
+        for (long id = 1; id <= getItems(); id++) {
+            rows.add(new Object[]{id, "item " + id, "description of item " + id, true, getOwnerId(id)});
+            flushIfFull(insertItem, rows);
+        }
+        flush(insertItem, rows);
+        jdbcTemplate.update("INSERT INTO item_booking_summaries (item_id, refresh_at) " +
+                "SELECT i.id, CURRENT_TIMESTAMP FROM items i");
+
+        String insertBooking = "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, " +
+                "status, phase) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        LocalDateTime now = LocalDateTime.now();
+        long bookingId = 0;
+        for (long itemId = 1; itemId <= getItems(); itemId++) {
+            for (int i = 0; i < bookingsPerItem; i++) {
+                long bookerId = random.nextInt(users) + 1;
+                if (bookerId == getOwnerId(itemId)) {
+                    continue;
+                }
+                LocalDateTime start = now.plusDays((i - bookingsPerItem / 2) * 3L);
+                rows.add(new Object[]{++bookingId, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)),
+                        itemId, bookerId, getOwnerId(itemId), random.nextBoolean() ? "APPROVED" : "WAITING",
+                        BookingPhase.of(start, start.plusDays(1), now).name()});
+                flushIfFull(insertBooking, rows);
+            }
+        }
+        flush(insertBooking, rows);
+
+        restartSequence("users", users + 1L);
+        restartSequence("items", getItems() + 1L);
+        restartSequence("bookings", bookingId + 1);
+    }
+
+    private void flushIfFull(String sql, List<Object[]> rows) {
+        if (rows.size() >= BATCH_SIZE) {
+            flush(sql, rows);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    private void restartSequence(String table, long next) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + next);
+    }
+}
@@ -0,0 +1,248 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LoadTest {
+    static final String USER_HEADER = "X-Sharer-User-Id";
+    static final String[] STATES = {"ALL", "PAST", "FUTURE", "CURRENT", "WAITING"};
+
+    enum Endpoint {
+        SEARCH_ITEMS("GET /items/search", 35),
+        OWNER_ITEMS("GET /items", 15),
+        BOOKER_BOOKINGS("GET /bookings", 25),
+        OWNER_BOOKINGS("GET /bookings/owner", 15),
+        ADD_BOOKING("POST /bookings", 10);
+
+        final String title;
+        final int weight;
+
+        Endpoint(String title, int weight) {
+            this.title = title;
+            this.weight = weight;
+        }
+    }
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final String baseUrl;
+    private final DataSeeder seeder;
+    private final int threads;
+    private final List<Endpoint> endpoints;
+    private final int totalWeight;
+    private final LocalDateTime bookingSlotsStart = LocalDateTime.now().plusYears(1).truncatedTo(ChronoUnit.MINUTES);
+    private final AtomicLong bookingSlot = new AtomicLong();
+
+    public LoadTest(String baseUrl, DataSeeder seeder, int threads, List<Endpoint> endpoints) {
+        this.baseUrl = baseUrl;
+        this.seeder = seeder;
+        this.threads = threads;
+        this.endpoints = endpoints;
+        this.totalWeight = endpoints.stream().mapToInt(endpoint -> endpoint.weight).sum();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("load.users", 1000);
+        int itemsPerUser = Integer.getInteger("load.itemsPerUser", 10);
+        int bookingsPerItem = Integer.getInteger("load.bookingsPerItem", 10);
+        int threads = Integer.getInteger("load.threads", 8);
+        int warmupSeconds = Integer.getInteger("load.warmupSeconds", 10);
+        int durationSeconds = Integer.getInteger("load.durationSeconds", 30);
+        String result = System.getProperty("load.result", "target/load-result.json");
+        List<Endpoint> endpoints = parseEndpoints(System.getProperty("load.endpoints"));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("ci")
+                .run("--server.port=0",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        try {
+            DataSeeder seeder = new DataSeeder(context.getBean(JdbcTemplate.class), users, itemsPerUser,
+                    bookingsPerItem);
+            long seedStart = System.nanoTime();
+            seeder.seed();
+            System.out.printf("Seeded %d users, %d items, up to %d bookings in %d s%n", users, seeder.getItems(),
+                    (long) seeder.getItems() * bookingsPerItem,
+                    Duration.ofNanos(System.nanoTime() - seedStart).toSeconds());
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            System.out.printf("Running %d clients against %s%n", threads, endpoints);
+            LoadTest loadTest = new LoadTest("http://localhost:" + port, seeder, threads, endpoints);
+            loadTest.run(warmupSeconds);
+            Map<Endpoint, Recorder> recorders = loadTest.run(durationSeconds);
+            report(recorders, durationSeconds, result);
+        } finally {
+            context.close();
+        }
+    }
+
+    Map<Endpoint, Recorder> run(int seconds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<Map<Endpoint, Recorder>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Random random = new Random(i);
+            futures.add(executor.submit(() -> work(random, deadline)));
+        }
+        Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+        for (Future<Map<Endpoint, Recorder>> future : futures) {
+            future.get().forEach((endpoint, recorder) ->
+                    recorders.computeIfAbsent(endpoint, e -> new Recorder()).merge(recorder));
+        }
+        executor.shutdown();
+        return recorders;
+    }
+
+    private Map<Endpoint, Recorder> work(Random random, long deadline) throws Exception {
+        Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+        while (System.nanoTime() < deadline) {
+            Endpoint endpoint = pick(random);
+            HttpRequest request = buildRequest(endpoint, random);
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            recorders.computeIfAbsent(endpoint, e -> new Recorder())
+                    .record(System.nanoTime() - start, response.statusCode() < 400);
+        }
+        return recorders;
+    }
+
+    private Endpoint pick(Random random) {
+        int value = random.nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            value -= endpoint.weight;
+            if (value < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints.get(0);
+    }
+
+    private static List<Endpoint> parseEndpoints(String names) {
+        if (names == null || names.isBlank()) {
+            return List.of(Endpoint.values());
+        }
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (String name : names.split(",")) {
+            endpoints.add(Endpoint.valueOf(name.trim()));
+        }
+        return endpoints;
+    }
+
+    private HttpRequest buildRequest(Endpoint endpoint, Random random) {
+        long userId = random.nextInt(seeder.getUsers()) + 1;
+        switch (endpoint) {
+            case SEARCH_ITEMS:
+                return get("/items/search?text=item+" + (random.nextInt(seeder.getItems()) + 1), userId);
+            case OWNER_ITEMS:
+                return get("/items", userId);
+            case BOOKER_BOOKINGS:
+                return get("/bookings?state=" + STATES[random.nextInt(STATES.length)], userId);
+            case OWNER_BOOKINGS:
+                return get("/bookings/owner?state=" + STATES[random.nextInt(STATES.length)], userId);
+            default:
+                long itemId = random.nextInt(seeder.getItems()) + 1;
+                long bookerId = seeder.getOwnerId(itemId) % seeder.getUsers() + 1;
+                LocalDateTime start = bookingSlotsStart.plusMinutes(bookingSlot.getAndIncrement() * 10);
+                String body = String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+                        itemId, start, start.plusMinutes(5));
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/bookings"))
+                        .header(USER_HEADER, String.valueOf(bookerId))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+        }
+    }
+
+    private HttpRequest get(String path, long userId) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header(USER_HEADER, String.valueOf(userId))
+                .GET()
+                .build();
+    }
+
+    private static void report(Map<Endpoint, Recorder> recorders, int seconds, String result) throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        System.out.printf("%-22s %10s %8s %12s %10s %10s%n", "endpoint", "requests", "errors", "req/s", "p50 ms",
+                "p99 ms");
+        recorders.forEach((endpoint, recorder) -> {
+            long[] latencies = recorder.sortedLatencies();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint.title);
+            row.put("requests", latencies.length);
+            row.put("errors", recorder.errors);
+            row.put("throughput", (double) latencies.length / seconds);
+            row.put("p50Ms", percentile(latencies, 0.5) / 1_000_000.0);
+            row.put("p99Ms", percentile(latencies, 0.99) / 1_000_000.0);
+            rows.add(row);
+            System.out.printf("%-22s %10d %8d %12.1f %10.2f %10.2f%n", endpoint.title, latencies.length,
+                    recorder.errors, row.get("throughput"), row.get("p50Ms"), row.get("p99Ms"));
+        });
+        File file = new File(result);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, rows);
+        System.out.println("Load test result is saved to " + file.getAbsolutePath());
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    static class Recorder {
+        long[] latencies = new long[1024];
+        int count;
+        long errors;
+
+        void record(long latency, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        void merge(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+
+        long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
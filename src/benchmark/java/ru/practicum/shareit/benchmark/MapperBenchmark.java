@@ -0,0 +1,75 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    Booking booking;
+    Item item;
+    ItemRequest itemRequest;
+    List<Item> requestItems;
+
+    @Setup
+    public void setUp() {
+        User owner = new User(1L, "owner", "owner@shareit.ru");
+        User booker = new User(2L, "booker", "booker@shareit.ru");
+        item = new Item(1L, "item", "description", true, owner.getId(), 1L, 0L);
+        LocalDateTime start = LocalDateTime.now();
+        booking = new Booking(1L, start, start.plusDays(1), item, booker, item.getOwnerId(),
+                BookingStatus.APPROVED, BookingPhase.CURRENT, 0L);
+        itemRequest = new ItemRequest();
+        itemRequest.setId(1L);
+        itemRequest.setDescription("request");
+        itemRequest.setUser(booker);
+        requestItems = new ArrayList<>();
+        for (long i = 0; i < 10; i++) {
+            requestItems.add(new Item(i, "item" + i, "description", true, owner.getId(), 1L, 0L));
+        }
+    }
+
+    @Benchmark
+    public BookingDto toBookingDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto toItemDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public ItemRequestDto fromModelToDto() {
+        return ItemRequestMapper.fromModelToDto(itemRequest, requestItems);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithDates;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    ConfigurableApplicationContext context;
+    BookingService bookingService;
+    ItemService itemService;
+    Long userId;
+    Long ownerItemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("ci")
+                .run("--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        DataSeeder seeder = new DataSeeder(context.getBean(JdbcTemplate.class), 100, 10, 10);
+        seeder.seed();
+        userId = (long) seeder.getUsers() / 2;
+        ownerItemId = LongStream.rangeClosed(1, seeder.getItems())
+                .filter(itemId -> seeder.getOwnerId(itemId) == userId)
+                .findFirst().orElseThrow();
+        bookingService = context.getBean(BookingService.class);
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllBookerBookings() {
+        return bookingService.getAllBookerBookings(userId, "ALL", 0, 20);
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllBookerBookingsFuture() {
+        return bookingService.getAllBookerBookings(userId, "FUTURE", 0, 20);
+    }
+
+    @Benchmark
+    public List<ItemWithDates> getUserItems() {
+        return itemService.getUserItems(userId, 0, 20);
+    }
+
+    @Benchmark
+    public ItemWithDates getOwnerItem() {
+        return itemService.getItemById(userId, ownerItemId);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItems() {
+        return itemService.searchItems("description", 0, 20);
+    }
+}
@@ -0,0 +1,32 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+public class V3__create_id_sequences extends BaseJavaMigration {
+    static final int ALLOCATION_SIZE = 50;
+    static final List<String> TABLES = List.of("users", "items", "bookings", "comments", "requests");
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : TABLES) {
+                long start = nextId(statement, table);
+                statement.execute("CREATE SEQUENCE IF NOT EXISTS " + table + "_seq START WITH " + start
+                        + " INCREMENT BY " + ALLOCATION_SIZE);
+            }
+        }
+    }
+
+    private long nextId(Statement statement, String table) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package db.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+
+@Slf4j
+public class V9__add_item_search_indexes extends BaseJavaMigration {
+    static final String POSTGRESQL = "PostgreSQL";
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        if (!POSTGRESQL.equals(connection.getMetaData().getDatabaseProductName())) {
+            return;
+        }
+        if (!createTrigramExtension(connection)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_items_name_trgm " +
+                    "ON items USING gin (upper(name) gin_trgm_ops)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_items_description_trgm " +
+                    "ON items USING gin (upper(description) gin_trgm_ops)");
+        }
+    }
+
+    private boolean createTrigramExtension(Connection connection) throws SQLException {
+        Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            return true;
+        } catch (SQLException e) {
+            if (savepoint != null) {
+                connection.rollback(savepoint);
+            }
+            log.warn("pg_trgm could not be created, item search will scan the items table : {}", e.getMessage());
+            return false;
+        }
+    }
+}
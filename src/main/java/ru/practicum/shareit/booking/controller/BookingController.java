@@ -1,15 +1,31 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.ValidationException;
 
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -19,7 +35,9 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class BookingController {
     final BookingService bookingService;
+    final ObjectMapper objectMapper;
     static final String USER_HEADER = "X-Sharer-User-Id";
+    static final int MAX_BATCH_SIZE = 100;
 
     @PostMapping
     public BookingDto addBooking(@RequestHeader(USER_HEADER) Long userId,
@@ -27,6 +45,21 @@ public class BookingController {
         return bookingService.addBooking(userId, bookingRequest);
     }
 
+    @PostMapping("/batch")
+    public List<BookingDto> addBookings(@RequestHeader(USER_HEADER) Long userId,
+                                        @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                        List<@Valid BookingRequest> bookingRequests) {
+        return bookingService.addBookings(userId, bookingRequests);
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingDto> setBookingsStatus(@RequestHeader(USER_HEADER) Long userId,
+                                              @RequestParam Boolean approved,
+                                              @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                              List<@NotNull Long> bookingIds) {
+        return bookingService.setBookingsStatus(userId, bookingIds, approved);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto setBookingStatus(@RequestHeader(USER_HEADER) Long userId,
                                        @PathVariable("bookingId") Long bookingId,
@@ -44,7 +77,14 @@ public class BookingController {
     public List<BookingDto> getAllUserBookings(@RequestHeader(USER_HEADER) Long userId,
                                                @RequestParam(defaultValue = "ALL") String state,
                                                @RequestParam(value = "from", defaultValue = "0") @Min(0) int from,
-                                               @RequestParam(value = "size", defaultValue = "10") @Min(1) int size) {
+                                               @RequestParam(value = "size", defaultValue = "10") @Min(1) int size,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime cursorStart,
+                                               @RequestParam(required = false) Long cursorId) {
+        if (isCursorGiven(cursorStart, cursorId)) {
+            return bookingService.getAllBookerBookings(userId, state, cursorStart, cursorId, size);
+        }
         return bookingService.getAllBookerBookings(userId, state, from, size);
     }
 
@@ -52,7 +92,59 @@ public class BookingController {
     public List<BookingDto> getAllUserItemsBooking(@RequestHeader(USER_HEADER) Long ownerId,
                                                    @RequestParam(defaultValue = "ALL") String state,
                                                    @RequestParam(value = "from", defaultValue = "0") @Min(0) int from,
-                                                   @RequestParam(value = "size", defaultValue = "10") @Min(1) int size) {
+                                                   @RequestParam(value = "size", defaultValue = "10") @Min(1) int size,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime cursorStart,
+                                                   @RequestParam(required = false) Long cursorId) {
+        if (isCursorGiven(cursorStart, cursorId)) {
+            return bookingService.getAllBookerItemsBooking(ownerId, state, cursorStart, cursorId, size);
+        }
         return bookingService.getAllBookerItemsBooking(ownerId, state, from, size);
     }
+
+    @GetMapping("/export")
+    public void exportBookerBookings(@RequestHeader(USER_HEADER) Long userId,
+                                     HttpServletResponse response) throws IOException {
+        Writer writer = getWriter(response);
+        bookingService.exportBookerBookings(userId, booking -> writeLine(response, writer, booking));
+        setNdjsonContentType(response);
+        writer.flush();
+    }
+
+    @GetMapping("/owner/export")
+    public void exportBookerItemsBookings(@RequestHeader(USER_HEADER) Long ownerId,
+                                          HttpServletResponse response) throws IOException {
+        Writer writer = getWriter(response);
+        bookingService.exportBookerItemsBookings(ownerId, booking -> writeLine(response, writer, booking));
+        setNdjsonContentType(response);
+        writer.flush();
+    }
+
+    private boolean isCursorGiven(LocalDateTime cursorStart, Long cursorId) {
+        if ((cursorStart == null) != (cursorId == null)) {
+            throw new ValidationException("cursorStart and cursorId must be given together");
+        }
+        return cursorStart != null;
+    }
+
+    private Writer getWriter(HttpServletResponse response) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    private void setNdjsonContentType(HttpServletResponse response) {
+        if (response.getContentType() == null) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE + ";charset=UTF-8");
+        }
+    }
+
+    private void writeLine(HttpServletResponse response, Writer writer, BookingDto booking) {
+        setNdjsonContentType(response);
+        try {
+            writer.write(objectMapper.writeValueAsString(booking));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -22,4 +22,11 @@ public class BookingDto {
     ItemDto item;
     UserDto booker;
     BookingStatus status;
+
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      Long itemId, String itemName, String itemDescription, Boolean itemAvailable, Long itemRequestId,
+                      Long bookerId, String bookerName, String bookerEmail) {
+        this(id, start, end, new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId),
+                new UserDto(bookerId, bookerName, bookerEmail), status);
+    }
 }
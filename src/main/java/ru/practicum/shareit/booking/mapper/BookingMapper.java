@@ -1,11 +1,16 @@
 package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingForItem;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
+import java.time.LocalDateTime;
+
 public class BookingMapper {
     public static Booking toBookingModel(BookingRequest bookingRequest) {
         Booking booking = Booking.builder().build();
@@ -25,4 +30,19 @@ public class BookingMapper {
                 .build();
         return bookingDto;
     }
+
+    public static BookingEvent toBookingEvent(Booking booking, BookingEventType type, LocalDateTime createdAt) {
+        return BookingEvent.builder()
+                .bookingId(booking.getId())
+                .itemId(booking.getItem().getId())
+                .ownerId(booking.getOwnerId())
+                .bookerId(booking.getBooker().getId())
+                .type(type)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    public static BookingForItem toBookingForItem(Booking booking) {
+        return new BookingForItem(booking.getId(), booking.getBooker().getId());
+    }
 }
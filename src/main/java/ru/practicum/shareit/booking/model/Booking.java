@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     Long id;
     @Column(name = "start_date")
     LocalDateTime start;
@@ -29,6 +30,22 @@ public class Booking {
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "booker_id", nullable = false)
     User booker;
+    @Column(name = "owner_id", nullable = false)
+    Long ownerId;
     @Enumerated(EnumType.STRING)
     BookingStatus status;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "phase", nullable = false, updatable = false)
+    BookingPhase phase;
+    @Version
+    @Column(name = "version")
+    Long version;
+
+    @PrePersist
+    void initDerivedFields() {
+        ownerId = item.getOwnerId();
+        if (phase == null) {
+            phase = BookingPhase.of(start, end, LocalDateTime.now());
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "booking_events", schema = "public")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_events_seq")
+    @SequenceGenerator(name = "booking_events_seq", sequenceName = "booking_events_seq", allocationSize = 50)
+    Long id;
+    @Column(name = "booking_id", nullable = false)
+    Long bookingId;
+    @Column(name = "item_id", nullable = false)
+    Long itemId;
+    @Column(name = "owner_id", nullable = false)
+    Long ownerId;
+    @Column(name = "booker_id", nullable = false)
+    Long bookerId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    BookingEventType type;
+    @Column(name = "created_at", nullable = false)
+    LocalDateTime createdAt;
+    @Column(name = "processed_at")
+    LocalDateTime processedAt;
+    @Column(name = "attempts", nullable = false)
+    int attempts;
+    @Column(name = "failed_at")
+    LocalDateTime failedAt;
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+    @Query("select e.id from BookingEvent as e " +
+            "where e.processedAt is null " +
+            "and e.failedAt is null " +
+            "order by e.id")
+    List<Long> findPendingIds(Pageable page);
+
+    @Modifying
+    @Query("update BookingEvent as e " +
+            "set e.processedAt = ?2 " +
+            "where e.id = ?1 " +
+            "and e.processedAt is null " +
+            "and e.failedAt is null")
+    int markProcessed(Long eventId, LocalDateTime processedAt);
+
+    @Modifying
+    @Query("update BookingEvent as e " +
+            "set e.attempts = e.attempts + 1 " +
+            "where e.id = ?1 " +
+            "and e.processedAt is null " +
+            "and e.failedAt is null")
+    int incrementAttempts(Long eventId);
+
+    @Modifying
+    @Query("update BookingEvent as e " +
+            "set e.failedAt = ?3 " +
+            "where e.id = ?1 " +
+            "and e.attempts >= ?2 " +
+            "and e.failedAt is null")
+    int markFailedAfterAttempts(Long eventId, int maxAttempts, LocalDateTime failedAt);
+
+    @Modifying
+    @Query("delete from BookingEvent as e " +
+            "where e.processedAt < ?1")
+    int deleteProcessedBefore(LocalDateTime processedAt);
+}
@@ -1,89 +1,244 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
-import ru.practicum.shareit.booking.dto.BookingForItem;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findAllByBookerIdOrderByStartDesc(Long userId, Pageable page);
+    String BOOKING_DTO_QUERY = "select new ru.practicum.shareit.booking.dto.BookingDto" +
+            "(b.id, b.start, b.end, b.status, i.id, i.name, i.description, i.available, i.requestId, " +
+            "u.id, u.name, u.email) " +
+            "from Booking as b " +
+            "join b.item as i " +
+            "join b.booker as u ";
 
-    Page<Booking> findAllByBookerIdAndEndIsBeforeOrderByStartDesc(Long userId, LocalDateTime now, Pageable page);
+    @Query(BOOKING_DTO_QUERY +
+            "where b.booker.id = ?1 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findAllByBookerIdOrderByStartDesc(Long userId, Pageable page);
 
-    Page<Booking> findAllByBookerIdAndStartIsAfterOrderByStartDesc(Long userId, LocalDateTime now, Pageable page);
+    @Query(BOOKING_DTO_QUERY +
+            "where b.booker.id = ?1 " +
+            "and b.phase in ?2 " +
+            "and b.start <= ?3 " +
+            "and b.end >= ?3 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findCurrentByBookerId(Long userId, Collection<BookingPhase> phases, LocalDateTime now,
+                                            Pageable page);
 
-    @Query("select new ru.practicum.shareit.booking.model.Booking" +
-            "(b.id, b.start, b.end, b.item, b.booker, b.status) " +
-            "from Booking as b " +
+    @Query(BOOKING_DTO_QUERY +
+            "where b.booker.id = ?1 " +
+            "and b.end < ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findPastByBookerId(Long userId, LocalDateTime now, Pageable page);
+
+    @Query(BOOKING_DTO_QUERY +
+            "where b.booker.id = ?1 " +
+            "and b.phase = ?2 " +
+            "and b.start > ?3 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findFutureByBookerId(Long userId, BookingPhase phase, LocalDateTime now, Pageable page);
+
+    @Query(BOOKING_DTO_QUERY +
             "where b.booker.id = ?1 " +
-            "and (?2 between b.start and b.end) " +
-            "order by b.start desc")
-    Page<Booking> findAllByBookerIdCurrentBookings(Long userId, LocalDateTime now, Pageable page);
+            "and b.status = ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findAllByBookerIdAndStatusOrderByStartDesc(Long userId, BookingStatus status, Pageable page);
 
-    Page<Booking> findALLByBookerIdAndStatusOrderByStartDesc(Long userId, BookingStatus status, Pageable page);
+    @Query(BOOKING_DTO_QUERY +
+            "where b.ownerId = ?1 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findAllByOwnerIdOrderByStartDesc(Long ownerId, Pageable page);
 
-    @Query("select new ru.practicum.shareit.booking.model.Booking" +
-            "(b.id, b.start, b.end, b.item, b.booker, b.status) " +
-            "from Booking as b " +
-            "where b.item.ownerId = ?1 " +
-            "order by b.start desc")
-    Page<Booking> findAllByOwnerIdOrderByStartDesc(Long ownerId, Pageable page);
+    @Query(BOOKING_DTO_QUERY +
+            "where b.ownerId = ?1 " +
+            "and b.phase in ?2 " +
+            "and b.start <= ?3 " +
+            "and b.end >= ?3 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findCurrentByOwnerId(Long ownerId, Collection<BookingPhase> phases, LocalDateTime now,
+                                           Pageable page);
 
-    @Query("select new ru.practicum.shareit.booking.model.Booking" +
-            "(b.id, b.start, b.end, b.item, b.booker, b.status) " +
-            "from Booking as b " +
-            "where b.item.ownerId = ?1 " +
+    @Query(BOOKING_DTO_QUERY +
+            "where b.ownerId = ?1 " +
             "and b.end < ?2 " +
-            "order by b.start desc")
-    Page<Booking> findAllByOwnerIdAndEndIsBeforeOrderByStartDesc(Long ownerId, LocalDateTime now, Pageable page);
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findPastByOwnerId(Long ownerId, LocalDateTime now, Pageable page);
 
-    @Query("select new ru.practicum.shareit.booking.model.Booking" +
-            "(b.id, b.start, b.end, b.item, b.booker, b.status) " +
-            "from Booking as b " +
-            "where b.item.ownerId = ?1 " +
-            "and b.start > ?2 " +
-            "order by b.start desc")
-    Page<Booking> findAllByOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime now, Pageable page);
+    @Query(BOOKING_DTO_QUERY +
+            "where b.ownerId = ?1 " +
+            "and b.phase = ?2 " +
+            "and b.start > ?3 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findFutureByOwnerId(Long ownerId, BookingPhase phase, LocalDateTime now, Pageable page);
 
-    @Query("select new ru.practicum.shareit.booking.model.Booking" +
-            "(b.id, b.start, b.end, b.item, b.booker, b.status) " +
-            "from Booking as b " +
-            "where b.item.ownerId = ?1 " +
-            "and (?2 between b.start and b.end) " +
-            "order by b.start desc")
-    Page<Booking> findAllByOwnerIdCurrentBookings(Long ownerId, LocalDateTime now, Pageable page);
+    @Query(BOOKING_DTO_QUERY +
+            "where b.ownerId = ?1 " +
+            "and b.status = ?2 " +
+            "order by b.start desc, b.id desc")
+    Slice<BookingDto> findAllByOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status, Pageable page);
 
-    @Query("select new ru.practicum.shareit.booking.model.Booking" +
-            "(b.id, b.start, b.end, b.item, b.booker, b.status) " +
-            "from Booking as b " +
-            "where b.item.ownerId = ?1 " +
+    @Query(BOOKING_DTO_QUERY +
+            "where b.booker.id = ?1 " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllByBookerIdBeforeCursor(Long userId, LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(BOOKING_DTO_QUERY +
+            "where b.booker.id = ?1 " +
+            "and b.phase in ?2 " +
+            "and b.start <= ?3 " +
+            "and b.end >= ?3 " +
+            "and (b.start < ?4 or (b.start = ?4 and b.id < ?5)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findCurrentByBookerIdBeforeCursor(Long userId, Collection<BookingPhase> phases, LocalDateTime now,
+                                                       LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(BOOKING_DTO_QUERY +
+            "where b.booker.id = ?1 " +
+            "and b.end < ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findPastByBookerIdBeforeCursor(Long userId, LocalDateTime now, LocalDateTime cursorStart,
+                                                    Long cursorId, Pageable page);
+
+    @Query(BOOKING_DTO_QUERY +
+            "where b.booker.id = ?1 " +
+            "and b.phase = ?2 " +
+            "and b.start > ?3 " +
+            "and (b.start < ?4 or (b.start = ?4 and b.id < ?5)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findFutureByBookerIdBeforeCursor(Long userId, BookingPhase phase, LocalDateTime now,
+                                                      LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(BOOKING_DTO_QUERY +
+            "where b.booker.id = ?1 " +
             "and b.status = ?2 " +
-            "order by b.start desc")
-    Page<Booking> findAllByOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status, Pageable page);
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findByBookerIdAndStatusBeforeCursor(Long userId, BookingStatus status, LocalDateTime cursorStart,
+                                                         Long cursorId, Pageable page);
 
-    @Query("select new ru.practicum.shareit.booking.dto.BookingForItem(b.id, b.booker.id) " +
-            "from Booking as b " +
-            "where b.item.id = ?1 " +
-            "and b.start > ?2 " +
+    @Query(BOOKING_DTO_QUERY +
+            "where b.ownerId = ?1 " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findAllByOwnerIdBeforeCursor(Long ownerId, LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(BOOKING_DTO_QUERY +
+            "where b.ownerId = ?1 " +
+            "and b.phase in ?2 " +
+            "and b.start <= ?3 " +
+            "and b.end >= ?3 " +
+            "and (b.start < ?4 or (b.start = ?4 and b.id < ?5)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findCurrentByOwnerIdBeforeCursor(Long ownerId, Collection<BookingPhase> phases, LocalDateTime now,
+                                                      LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(BOOKING_DTO_QUERY +
+            "where b.ownerId = ?1 " +
+            "and b.end < ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findPastByOwnerIdBeforeCursor(Long ownerId, LocalDateTime now, LocalDateTime cursorStart,
+                                                   Long cursorId, Pageable page);
+
+    @Query(BOOKING_DTO_QUERY +
+            "where b.ownerId = ?1 " +
+            "and b.phase = ?2 " +
+            "and b.start > ?3 " +
+            "and (b.start < ?4 or (b.start = ?4 and b.id < ?5)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findFutureByOwnerIdBeforeCursor(Long ownerId, BookingPhase phase, LocalDateTime now,
+                                                     LocalDateTime cursorStart, Long cursorId, Pageable page);
+
+    @Query(BOOKING_DTO_QUERY +
+            "where b.ownerId = ?1 " +
+            "and b.status = ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingDto> findByOwnerIdAndStatusBeforeCursor(Long ownerId, BookingStatus status, LocalDateTime cursorStart,
+                                                        Long cursorId, Pageable page);
+
+    @Query("select b from Booking as b " +
+            "join fetch b.item " +
+            "join fetch b.booker " +
+            "where b.item.id in ?1 " +
             "and b.status = ?3 " +
-            "order by b.start asc")
-    List<BookingForItem> findNextBookingForItem(Long itemId, LocalDateTime currentTime, BookingStatus status);
+            "and b.start = (select min(nb.start) from Booking as nb " +
+            "where nb.item.id = b.item.id " +
+            "and nb.start > ?2 " +
+            "and nb.status = ?3)")
+    List<Booking> findNextBookingsForItems(Collection<Long> itemIds, LocalDateTime currentTime, BookingStatus status);
 
-    @Query("select new ru.practicum.shareit.booking.dto.BookingForItem(b.id, b.booker.id) " +
-            "from Booking as b " +
-            "where b.item.id = ?1 " +
-            "and b.start < ?2 " +
+    @Query("select b from Booking as b " +
+            "join fetch b.item " +
+            "join fetch b.booker " +
+            "where b.item.id in ?1 " +
             "and b.status = ?3 " +
-            "order by b.start desc")
-    List<BookingForItem> findLastBookingForItem(Long itemId, LocalDateTime currentTime, BookingStatus status);
+            "and b.start = (select max(lb.start) from Booking as lb " +
+            "where lb.item.id = b.item.id " +
+            "and lb.start < ?2 " +
+            "and lb.status = ?3)")
+    List<Booking> findLastBookingsForItems(Collection<Long> itemIds, LocalDateTime currentTime, BookingStatus status);
+
+    @Query("select b from Booking as b " +
+            "join fetch b.item " +
+            "join fetch b.booker " +
+            "where b.id in ?1")
+    List<Booking> findAllWithItemAndBookerByIdIn(Collection<Long> ids);
+
+    @Query("select b from Booking as b " +
+            "join fetch b.item " +
+            "join fetch b.booker " +
+            "where b.item.id in ?1 " +
+            "and b.status in ?2 " +
+            "and b.start < ?3 " +
+            "and b.end > ?4")
+    List<Booking> findAllOverlapping(Collection<Long> itemIds, Collection<BookingStatus> statuses,
+                                     LocalDateTime end, LocalDateTime start);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Booking as b " +
+            "set b.status = ?3, b.version = b.version + 1 " +
+            "where b.id = ?1 " +
+            "and b.status = ?2")
+    int updateStatus(Long bookingId, BookingStatus expectedStatus, BookingStatus status);
+
+    @Modifying
+    @Query("update Booking as b " +
+            "set b.phase = ?1 " +
+            "where b.phase in ?2 " +
+            "and b.end < ?3")
+    int updatePhaseWhenEndIsBefore(BookingPhase phase, Collection<BookingPhase> currentPhases, LocalDateTime time);
+
+    @Modifying
+    @Query("update Booking as b " +
+            "set b.phase = ?1 " +
+            "where b.phase = ?2 " +
+            "and b.start <= ?3")
+    int updatePhaseWhenStartIsNotAfter(BookingPhase phase, BookingPhase currentPhase, LocalDateTime time);
 
     List<Booking> findByBookerIdAndItemId(Long bookerId, Long itemId);
+
+    @Query("select case when count(b) > 0 then true else false end " +
+            "from Booking as b " +
+            "where b.item.id = ?1 " +
+            "and b.status in ?2 " +
+            "and b.start < ?3 " +
+            "and b.end > ?4")
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId, Collection<BookingStatus> statuses,
+                                                               LocalDateTime end, LocalDateTime start);
 }
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingEventDispatcher {
+    final BookingEventRepository bookingEventRepository;
+    final List<BookingEventHandler> handlers;
+    final TransactionOperations transactionOperations;
+    final ThreadPoolTaskExecutor bookingEventExecutor;
+    static final int PENDING_BATCH_SIZE = 500;
+    static final Duration PROCESSED_EVENT_RETENTION = Duration.ofDays(1);
+    static final int MAX_DISPATCH_ATTEMPTS = 5;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingEvent(BookingEvent event) {
+        bookingEventExecutor.execute(() -> dispatchQuietly(event.getId()));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-events.poll-interval:PT30S}",
+            initialDelayString = "${shareit.booking-events.poll-interval:PT30S}")
+    public int dispatchPending() {
+        List<Long> eventIds = bookingEventRepository.findPendingIds(PageRequest.of(0, PENDING_BATCH_SIZE));
+        int dispatched = 0;
+        for (Long eventId : eventIds) {
+            if (dispatchQuietly(eventId)) {
+                dispatched++;
+            }
+        }
+        transactionOperations.executeWithoutResult(status -> bookingEventRepository
+                .deleteProcessedBefore(LocalDateTime.now().minus(PROCESSED_EVENT_RETENTION)));
+        if (dispatched > 0) {
+            log.info("Pending booking events dispatched : {}", dispatched);
+        }
+        return dispatched;
+    }
+
+    public boolean dispatch(Long eventId) {
+        return Boolean.TRUE.equals(transactionOperations.execute(status -> {
+            if (bookingEventRepository.markProcessed(eventId, LocalDateTime.now()) == 0) {
+                return false;
+            }
+            BookingEvent event = bookingEventRepository.findById(eventId).orElseThrow();
+            handlers.forEach(handler -> handler.handle(event));
+            return true;
+        }));
+    }
+
+    private boolean dispatchQuietly(Long eventId) {
+        try {
+            return dispatch(eventId);
+        } catch (RuntimeException e) {
+            recordFailure(eventId, e);
+            return false;
+        }
+    }
+
+    private void recordFailure(Long eventId, RuntimeException cause) {
+        Boolean failed;
+        try {
+            failed = transactionOperations.execute(status -> {
+                bookingEventRepository.incrementAttempts(eventId);
+                return bookingEventRepository.markFailedAfterAttempts(eventId, MAX_DISPATCH_ATTEMPTS,
+                        LocalDateTime.now()) > 0;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed attempt of booking event {} is not recorded : {}", eventId, e.getMessage());
+            failed = false;
+        }
+        if (Boolean.TRUE.equals(failed)) {
+            log.error("Booking event {} failed {} times and is no longer dispatched : {}",
+                    eventId, MAX_DISPATCH_ATTEMPTS, cause.getMessage());
+        } else {
+            log.warn("Booking event {} is left for the next poll : {}", eventId, cause.getMessage());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+public interface BookingEventHandler {
+    void handle(BookingEvent event);
+}
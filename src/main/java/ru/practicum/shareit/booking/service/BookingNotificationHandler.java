@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+
+@Component
+@Slf4j
+public class BookingNotificationHandler implements BookingEventHandler {
+    @Override
+    public void handle(BookingEvent event) {
+        if (BookingEventType.CREATED == event.getType()) {
+            log.info("Notify owner {} : new booking {} for item {}", event.getOwnerId(), event.getBookingId(),
+                    event.getItemId());
+        } else {
+            log.info("Notify booker {} : booking {} is {}", event.getBookerId(), event.getBookingId(),
+                    event.getType());
+        }
+    }
+}
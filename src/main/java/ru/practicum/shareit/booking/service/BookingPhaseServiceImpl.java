@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingPhaseServiceImpl implements BookingPhaseService {
+    final BookingRepository bookingRepository;
+
+    @Scheduled(fixedDelayString = "${shareit.booking-phase.refresh-interval:PT1M}",
+            initialDelayString = "${shareit.booking-phase.refresh-interval:PT1M}")
+    @Transactional
+    @Override
+    public int updatePhases() {
+        LocalDateTime now = LocalDateTime.now();
+        int ended = bookingRepository.updatePhaseWhenEndIsBefore(BookingPhase.PAST,
+                List.of(BookingPhase.FUTURE, BookingPhase.CURRENT), now);
+        int started = bookingRepository.updatePhaseWhenStartIsNotAfter(BookingPhase.CURRENT, BookingPhase.FUTURE, now);
+        if (ended + started > 0) {
+            log.info("Booking phases updated : {} ended, {} started", ended, started);
+        }
+        return ended + started;
+    }
+}
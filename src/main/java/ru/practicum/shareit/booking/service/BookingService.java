@@ -3,16 +3,31 @@ package ru.practicum.shareit.booking.service;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto addBooking(Long userId, BookingRequest bookingRequest);
 
+    List<BookingDto> addBookings(Long userId, List<BookingRequest> bookingRequests);
+
     BookingDto setBookingStatus(Long userId, Long bookingId, Boolean approved);
 
+    List<BookingDto> setBookingsStatus(Long userId, List<Long> bookingIds, Boolean approved);
+
     BookingDto getBookingById(Long userId, Long bookingId);
 
     List<BookingDto> getAllBookerBookings(Long userId, String state, int from, int size);
 
+    List<BookingDto> getAllBookerBookings(Long userId, String state, LocalDateTime cursorStart, Long cursorId, int size);
+
     List<BookingDto> getAllBookerItemsBooking(Long ownerId, String state, int from, int size);
+
+    List<BookingDto> getAllBookerItemsBooking(Long ownerId, String state, LocalDateTime cursorStart, Long cursorId,
+                                              int size);
+
+    void exportBookerBookings(Long userId, Consumer<BookingDto> consumer);
+
+    void exportBookerItemsBookings(Long ownerId, Consumer<BookingDto> consumer);
 }
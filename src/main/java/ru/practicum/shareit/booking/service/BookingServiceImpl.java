@@ -4,25 +4,51 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ConcurrentUpdateException;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.exceptions.ItemIsNotAvailable;
 import ru.practicum.shareit.exceptions.OwnerException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.ItemBookingVersion;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,46 +59,39 @@ public class BookingServiceImpl implements BookingService {
     final BookingRepository bookingRepository;
     final UserRepository userRepository;
     final ItemRepository itemRepository;
+    final ItemBookingSummaryRepository summaryRepository;
+    final BookingEventRepository bookingEventRepository;
+    final ApplicationEventPublisher eventPublisher;
+    final TransactionOperations transactionOperations;
+    final EntityManager entityManager;
+    static final int MAX_STATUS_UPDATE_ATTEMPTS = 3;
+    static final int EXPORT_CHUNK_SIZE = 500;
+    static final List<BookingPhase> NOT_ENDED_PHASES = List.of(BookingPhase.FUTURE, BookingPhase.CURRENT);
 
-    @Transactional
     @Override
     public BookingDto addBooking(Long userId, BookingRequest bookingRequest) {
-        checkUser(userId);
-        checkItemIsAvailable(bookingRequest.getItemId());
-        checkIfBookerIsNotOwner(userId, bookingRequest.getItemId());
-        if (checkDates(bookingRequest.getStart(), bookingRequest.getEnd())) {
-            throw new ValidationException("Wrong booking time");
-        }
-        Booking booking = BookingMapper.toBookingModel(bookingRequest);
-        booking.setItem(itemRepository.findById(bookingRequest.getItemId())
-                .orElseThrow(() -> new EntityNotFoundException("No item with id " + bookingRequest.getItemId())));
-        booking.setBooker(userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("No user with id " + userId)));
-        booking.setStatus(BookingStatus.WAITING);
-        bookingRepository.save(booking);
-        log.info("New booking added : {}", booking);
-        return BookingMapper.toBookingDto(booking);
+        return retryOnConflict(() -> transactionOperations.execute(status -> createBooking(userId, bookingRequest)));
+    }
+
+    @Override
+    public List<BookingDto> addBookings(Long userId, List<BookingRequest> bookingRequests) {
+        return retryOnConflict(() -> transactionOperations.execute(status ->
+                createBookings(userId, bookingRequests)));
     }
 
-    @Transactional
     @Override
     public BookingDto setBookingStatus(Long userId, Long bookingId, Boolean approved) {
-        Booking booking = getBookingIfExists(bookingId);
-        checkOwner(userId, booking);
-        if (BookingStatus.APPROVED == booking.getStatus()) {
-            throw new ValidationException("Booking is already confirmed");
-        }
-        if (approved) {
-            booking.setStatus(BookingStatus.APPROVED);
-            log.info("Set status to Approved for booking : {}", booking);
-        } else {
-            booking.setStatus(BookingStatus.REJECTED);
-            log.info("Set status to Rejected for booking : {}", booking);
-        }
-        bookingRepository.save(booking);
-        return BookingMapper.toBookingDto(booking);
+        return retryOnConflict(() -> transactionOperations.execute(status ->
+                updateBookingStatus(userId, bookingId, approved)));
+    }
+
+    @Override
+    public List<BookingDto> setBookingsStatus(Long userId, List<Long> bookingIds, Boolean approved) {
+        return retryOnConflict(() -> transactionOperations.execute(status ->
+                updateBookingsStatus(userId, bookingIds, approved)));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public BookingDto getBookingById(Long userId, Long bookingId) {
         checkUser(userId);
@@ -81,6 +100,7 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.toBookingDto(booking);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<BookingDto> getAllBookerBookings(Long userId, String state, int from, int size) {
         checkUser(userId);
@@ -88,24 +108,55 @@ public class BookingServiceImpl implements BookingService {
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
         switch (newState) {
             case ALL:
-                return bookingRepository.findAllByBookerIdOrderByStartDesc(userId, page).getContent()
-                        .stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return bookingRepository.findAllByBookerIdOrderByStartDesc(userId, page).getContent();
             case PAST:
-                return bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(userId, LocalDateTime.now(), page)
-                        .getContent().stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return bookingRepository.findPastByBookerId(userId, LocalDateTime.now(), page).getContent();
             case FUTURE:
-                return bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(userId, LocalDateTime.now(), page)
-                        .getContent().stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return bookingRepository.findFutureByBookerId(userId, BookingPhase.FUTURE, LocalDateTime.now(), page)
+                        .getContent();
             case CURRENT:
-                return bookingRepository.findAllByBookerIdCurrentBookings(userId, LocalDateTime.now(), page)
-                        .getContent().stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return bookingRepository.findCurrentByBookerId(userId, NOT_ENDED_PHASES, LocalDateTime.now(), page)
+                        .getContent();
             default:
                 BookingStatus status = BookingStatus.valueOf(String.valueOf(state));
-                return bookingRepository.findALLByBookerIdAndStatusOrderByStartDesc(userId, status, page)
-                        .getContent().stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, status, page)
+                        .getContent();
         }
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> getAllBookerBookings(Long userId, String state, LocalDateTime cursorStart, Long cursorId,
+                                                 int size) {
+        checkUser(userId);
+        BookingState newState = BookingState.parseState(state);
+        PageRequest page = PageRequest.of(0, size);
+        List<BookingDto> bookings;
+        switch (newState) {
+            case ALL:
+                bookings = bookingRepository.findAllByBookerIdBeforeCursor(userId, cursorStart, cursorId, page);
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastByBookerIdBeforeCursor(userId, LocalDateTime.now(),
+                        cursorStart, cursorId, page);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findFutureByBookerIdBeforeCursor(userId, BookingPhase.FUTURE,
+                        LocalDateTime.now(), cursorStart, cursorId, page);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findCurrentByBookerIdBeforeCursor(userId, NOT_ENDED_PHASES,
+                        LocalDateTime.now(), cursorStart, cursorId, page);
+                break;
+            default:
+                BookingStatus status = BookingStatus.valueOf(String.valueOf(state));
+                bookings = bookingRepository.findByBookerIdAndStatusBeforeCursor(userId, status,
+                        cursorStart, cursorId, page);
+        }
+        return bookings;
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public List<BookingDto> getAllBookerItemsBooking(Long ownerId, String state, int from, int size) {
         checkUser(ownerId);
@@ -113,24 +164,280 @@ public class BookingServiceImpl implements BookingService {
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
         switch (newState) {
             case ALL:
-                return bookingRepository.findAllByOwnerIdOrderByStartDesc(ownerId, page).stream()
-                        .map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return bookingRepository.findAllByOwnerIdOrderByStartDesc(ownerId, page).getContent();
             case PAST:
-                return bookingRepository.findAllByOwnerIdAndEndIsBeforeOrderByStartDesc(ownerId, LocalDateTime.now(), page)
-                        .getContent().stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return bookingRepository.findPastByOwnerId(ownerId, LocalDateTime.now(), page).getContent();
             case FUTURE:
-                return bookingRepository.findAllByOwnerIdAndStartAfterOrderByStartDesc(ownerId, LocalDateTime.now(), page)
-                        .getContent().stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return bookingRepository.findFutureByOwnerId(ownerId, BookingPhase.FUTURE, LocalDateTime.now(), page)
+                        .getContent();
             case CURRENT:
-                return bookingRepository.findAllByOwnerIdCurrentBookings(ownerId, LocalDateTime.now(), page)
-                        .getContent().stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                return bookingRepository.findCurrentByOwnerId(ownerId, NOT_ENDED_PHASES, LocalDateTime.now(), page)
+                        .getContent();
             default:
                 BookingStatus status = BookingStatus.valueOf(String.valueOf(state));
                 return bookingRepository.findAllByOwnerIdAndStatusOrderByStartDesc(ownerId, status, page)
-                        .getContent().stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+                        .getContent();
         }
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> getAllBookerItemsBooking(Long ownerId, String state, LocalDateTime cursorStart,
+                                                     Long cursorId, int size) {
+        checkUser(ownerId);
+        BookingState newState = BookingState.parseState(state);
+        PageRequest page = PageRequest.of(0, size);
+        List<BookingDto> bookings;
+        switch (newState) {
+            case ALL:
+                bookings = bookingRepository.findAllByOwnerIdBeforeCursor(ownerId, cursorStart, cursorId, page);
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastByOwnerIdBeforeCursor(ownerId, LocalDateTime.now(),
+                        cursorStart, cursorId, page);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findFutureByOwnerIdBeforeCursor(ownerId, BookingPhase.FUTURE,
+                        LocalDateTime.now(), cursorStart, cursorId, page);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findCurrentByOwnerIdBeforeCursor(ownerId, NOT_ENDED_PHASES,
+                        LocalDateTime.now(), cursorStart, cursorId, page);
+                break;
+            default:
+                BookingStatus status = BookingStatus.valueOf(String.valueOf(state));
+                bookings = bookingRepository.findByOwnerIdAndStatusBeforeCursor(ownerId, status,
+                        cursorStart, cursorId, page);
+        }
+        return bookings;
+    }
+
+    @Override
+    public void exportBookerBookings(Long userId, Consumer<BookingDto> consumer) {
+        checkUser(userId);
+        exportInChunks(consumer, (last, page) -> last == null
+                ? bookingRepository.findAllByBookerIdOrderByStartDesc(userId, page).getContent()
+                : bookingRepository.findAllByBookerIdBeforeCursor(userId, last.getStart(), last.getId(), page));
+    }
+
+    @Override
+    public void exportBookerItemsBookings(Long ownerId, Consumer<BookingDto> consumer) {
+        checkUser(ownerId);
+        exportInChunks(consumer, (last, page) -> last == null
+                ? bookingRepository.findAllByOwnerIdOrderByStartDesc(ownerId, page).getContent()
+                : bookingRepository.findAllByOwnerIdBeforeCursor(ownerId, last.getStart(), last.getId(), page));
+    }
+
+    private void exportInChunks(Consumer<BookingDto> consumer,
+                                BiFunction<BookingDto, Pageable, List<BookingDto>> nextChunk) {
+        PageRequest page = PageRequest.of(0, EXPORT_CHUNK_SIZE);
+        BookingDto last = null;
+        List<BookingDto> chunk;
+        do {
+            BookingDto cursor = last;
+            chunk = transactionOperations.execute(status -> nextChunk.apply(cursor, page));
+            chunk.forEach(consumer);
+            if (!chunk.isEmpty()) {
+                last = chunk.get(chunk.size() - 1);
+            }
+        } while (chunk.size() == EXPORT_CHUNK_SIZE);
+    }
+
+    private BookingDto createBooking(Long userId, BookingRequest bookingRequest) {
+        User booker = getUserIfItExists(userId);
+        Item item = getItemIfItExists(bookingRequest.getItemId());
+        checkItemIsAvailable(item);
+        checkIfBookerIsNotOwner(userId, item);
+        if (checkDates(bookingRequest.getStart(), bookingRequest.getEnd())) {
+            throw new ValidationException("Wrong booking time");
+        }
+        Map<Long, Long> bookingVersions = getBookingVersions(Set.of(item.getId()));
+        checkItemIsFree(bookingRequest.getItemId(), bookingRequest.getStart(), bookingRequest.getEnd(),
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED));
+        Booking booking = BookingMapper.toBookingModel(bookingRequest);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(BookingStatus.WAITING);
+        bookingRepository.save(booking);
+        incrementBookingVersions(bookingVersions);
+        addEvents(List.of(booking), BookingEventType.CREATED);
+        log.info("New booking added : {}", booking);
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    private List<BookingDto> createBookings(Long userId, List<BookingRequest> bookingRequests) {
+        User booker = getUserIfItExists(userId);
+        Map<Long, Item> items = getItemsIfTheyExist(bookingRequests.stream()
+                .map(BookingRequest::getItemId).collect(Collectors.toSet()));
+        List<Booking> bookings = new ArrayList<>();
+        for (BookingRequest bookingRequest : bookingRequests) {
+            Item item = items.get(bookingRequest.getItemId());
+            checkItemIsAvailable(item);
+            checkIfBookerIsNotOwner(userId, item);
+            if (checkDates(bookingRequest.getStart(), bookingRequest.getEnd())) {
+                throw new ValidationException("Wrong booking time");
+            }
+            Booking booking = BookingMapper.toBookingModel(bookingRequest);
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(BookingStatus.WAITING);
+            bookings.add(booking);
+        }
+        Map<Long, Long> bookingVersions = getBookingVersions(items.keySet());
+        checkItemsAreFree(bookings, List.of(BookingStatus.WAITING, BookingStatus.APPROVED));
+        bookingRepository.saveAll(bookings);
+        incrementBookingVersions(bookingVersions);
+        addEvents(bookings, BookingEventType.CREATED);
+        log.info("New bookings added : {}", bookings.size());
+        return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+    }
+
+    private BookingDto updateBookingStatus(Long userId, Long bookingId, Boolean approved) {
+        Booking booking = getBookingIfExists(bookingId);
+        checkOwner(userId, booking);
+        BookingStatus currentStatus = booking.getStatus();
+        if (BookingStatus.APPROVED == currentStatus) {
+            throw new ValidationException("Booking is already confirmed");
+        }
+        Map<Long, Long> bookingVersions = Map.of();
+        if (approved) {
+            bookingVersions = getBookingVersions(Set.of(booking.getItem().getId()));
+            checkItemIsFree(booking.getItem().getId(), booking.getStart(), booking.getEnd(),
+                    List.of(BookingStatus.APPROVED));
+        }
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatus(bookingId, currentStatus, status) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Booking.class, bookingId);
+        }
+        if (approved) {
+            incrementBookingVersions(bookingVersions);
+            markSummariesStale(bookingVersions.keySet());
+        }
+        entityManager.refresh(booking);
+        addEvents(List.of(booking), toEventType(status));
+        log.info("Set status to {} for booking : {}", status, booking);
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    private List<BookingDto> updateBookingsStatus(Long userId, List<Long> bookingIds, Boolean approved) {
+        List<Booking> bookings = getBookingsIfTheyExist(bookingIds);
+        for (Booking booking : bookings) {
+            checkOwner(userId, booking);
+            if (BookingStatus.APPROVED == booking.getStatus()) {
+                throw new ValidationException("Booking is already confirmed");
+            }
+        }
+        Map<Long, Long> bookingVersions = Map.of();
+        if (approved) {
+            bookingVersions = getBookingVersions(bookings.stream()
+                    .map(booking -> booking.getItem().getId()).collect(Collectors.toSet()));
+            checkItemsAreFree(bookings, List.of(BookingStatus.APPROVED));
+        }
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        bookings.forEach(booking -> booking.setStatus(status));
+        bookingRepository.saveAll(bookings);
+        if (approved) {
+            incrementBookingVersions(bookingVersions);
+            markSummariesStale(bookingVersions.keySet());
+        }
+        addEvents(bookings, toEventType(status));
+        log.info("Set status to {} for bookings : {}", status, bookingIds);
+        return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+    }
+
+    private Map<Long, Long> getBookingVersions(Set<Long> itemIds) {
+        Map<Long, Long> versions = summaryRepository.findBookingVersions(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingVersion::getItemId, ItemBookingVersion::getVersion));
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemBookingSummary> missingSummaries = itemIds.stream()
+                .filter(itemId -> !versions.containsKey(itemId))
+                .map(itemId -> ItemBookingSummary.builder().itemId(itemId).refreshAt(now).build())
+                .collect(Collectors.toList());
+        if (!missingSummaries.isEmpty()) {
+            try {
+                summaryRepository.saveAllAndFlush(missingSummaries);
+            } catch (DataIntegrityViolationException e) {
+                throw new ObjectOptimisticLockingFailureException(ItemBookingSummary.class, itemIds);
+            }
+            missingSummaries.forEach(summary -> versions.put(summary.getItemId(), 0L));
+        }
+        return versions;
+    }
+
+    private void incrementBookingVersions(Map<Long, Long> bookingVersions) {
+        new TreeMap<>(bookingVersions).forEach((itemId, version) -> {
+            if (summaryRepository.incrementBookingVersion(itemId, version) == 0) {
+                throw new ObjectOptimisticLockingFailureException(ItemBookingSummary.class, itemId);
+            }
+        });
+    }
+
+    private void markSummariesStale(Set<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        summaryRepository.findAllById(itemIds).forEach(summary -> summary.setRefreshAt(now));
+    }
+
+    private void addEvents(List<Booking> bookings, BookingEventType type) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingEvent> events = bookings.stream()
+                .map(booking -> BookingMapper.toBookingEvent(booking, type, now))
+                .collect(Collectors.toList());
+        bookingEventRepository.saveAll(events);
+        events.forEach(eventPublisher::publishEvent);
+    }
+
+    private BookingEventType toEventType(BookingStatus status) {
+        return BookingStatus.APPROVED == status ? BookingEventType.APPROVED : BookingEventType.REJECTED;
+    }
+
+    private <T> T retryOnConflict(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_STATUS_UPDATE_ATTEMPTS) {
+                    throw new ConcurrentUpdateException("Booking was changed concurrently, try again");
+                }
+                log.info("Concurrent booking update, attempt {} : {}", attempt, e.getMessage());
+            }
+        }
+    }
+
+    private User getUserIfItExists(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("No user with id " + userId));
+    }
+
+    private Item getItemIfItExists(Long itemId) {
+        return itemRepository.findById(itemId)
+                .orElseThrow(() -> new EntityNotFoundException("No item with id " + itemId));
+    }
+
+    private Map<Long, Item> getItemsIfTheyExist(Set<Long> itemIds) {
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        for (Long itemId : itemIds) {
+            if (!items.containsKey(itemId)) {
+                throw new EntityNotFoundException("No item with id " + itemId);
+            }
+        }
+        return items;
+    }
+
+    private List<Booking> getBookingsIfTheyExist(List<Long> bookingIds) {
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Booking> orderedBookings = new ArrayList<>();
+        for (Long bookingId : new LinkedHashSet<>(bookingIds)) {
+            Booking booking = bookings.get(bookingId);
+            if (booking == null) {
+                throw new EntityNotFoundException("No booking with id " + bookingId);
+            }
+            orderedBookings.add(booking);
+        }
+        return orderedBookings;
+    }
+
     private boolean checkUser(Long userId) {
         if (userRepository.findById(userId).isEmpty()) {
             throw new EntityNotFoundException("No user with id " + userId);
@@ -140,7 +447,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private Boolean checkOwner(Long userId, Booking booking) {
-        Long ownerId = booking.getItem().getOwnerId();
+        Long ownerId = booking.getOwnerId();
         if (ownerId.equals(userId)) {
             return true;
         } else {
@@ -148,24 +455,43 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    private boolean checkItemIsAvailable(Long itemId) {
-        if (itemRepository.findById(itemId)
-                .orElseThrow(() -> new EntityNotFoundException("No item with id " + itemId))
-                .getAvailable()) {
+    private boolean checkItemIsAvailable(Item item) {
+        if (item.getAvailable()) {
             return true;
         } else {
             throw new ItemIsNotAvailable("Item is not available for booking");
         }
     }
 
+    private void checkItemIsFree(Long itemId, LocalDateTime start, LocalDateTime end, List<BookingStatus> statuses) {
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId, statuses, end, start)) {
+            throw new ItemIsNotAvailable("Item is already booked for this time");
+        }
+    }
+
+    private void checkItemsAreFree(List<Booking> bookings, List<BookingStatus> statuses) {
+        Set<Long> itemIds = bookings.stream().map(booking -> booking.getItem().getId()).collect(Collectors.toSet());
+        LocalDateTime start = bookings.stream().map(Booking::getStart).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime end = bookings.stream().map(Booking::getEnd).max(LocalDateTime::compareTo).orElseThrow();
+        Map<Long, List<Booking>> bookedByItem = bookingRepository.findAllOverlapping(itemIds, statuses, end, start)
+                .stream().collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        for (Booking booking : bookings) {
+            List<Booking> booked = bookedByItem.computeIfAbsent(booking.getItem().getId(), id -> new ArrayList<>());
+            if (booked.stream().anyMatch(other -> other != booking
+                    && other.getStart().isBefore(booking.getEnd()) && other.getEnd().isAfter(booking.getStart()))) {
+                throw new ItemIsNotAvailable("Item is already booked for this time");
+            }
+            booked.add(booking);
+        }
+    }
+
     private boolean checkDates(LocalDateTime start, LocalDateTime end) {
         LocalDateTime now = LocalDateTime.now();
         return (start.isBefore(now) || end.isBefore(now) || start.equals(end) || start.isAfter(end));
     }
 
-    private boolean checkIfBookerIsNotOwner(Long userId, Long itemId) {
-        if (userId.equals(itemRepository.findById(itemId)
-                .orElseThrow(() -> new EntityNotFoundException("No item with id " + itemId)).getOwnerId())) {
+    private boolean checkIfBookerIsNotOwner(Long userId, Item item) {
+        if (userId.equals(item.getOwnerId())) {
             throw new OwnerException("User is the owner of the item");
         } else {
             return true;
@@ -178,7 +504,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private Boolean checkBookerOrItemOwner(Booking booking, Long userId) {
-        Long ownerId = booking.getItem().getOwnerId();
+        Long ownerId = booking.getOwnerId();
         Long bookerId = booking.getBooker().getId();
         if (ownerId.equals(userId) || bookerId.equals(userId)) {
             return true;
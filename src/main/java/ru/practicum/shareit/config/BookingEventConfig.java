@@ -0,0 +1,27 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Slf4j
+@Configuration
+public class BookingEventConfig {
+    @Bean
+    public ThreadPoolTaskExecutor bookingEventExecutor(
+            @Value("${shareit.booking-events.pool-size:2}") int poolSize,
+            @Value("${shareit.booking-events.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("booking-events-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Booking event queue is full, the event is left for the next poll"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
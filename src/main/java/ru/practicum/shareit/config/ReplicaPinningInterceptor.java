@@ -0,0 +1,58 @@
+package ru.practicum.shareit.config;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReplicaPinningInterceptor implements HandlerInterceptor {
+    static final String LAST_WRITE_COOKIE = "shareit-last-write";
+    long windowMillis;
+    int cookieMaxAge;
+
+    public ReplicaPinningInterceptor(Duration window) {
+        windowMillis = window.toMillis();
+        cookieMaxAge = (int) Math.max(1, (windowMillis + 999) / 1000);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long now = System.currentTimeMillis();
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            Cookie cookie = new Cookie(LAST_WRITE_COOKIE, String.valueOf(now));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge(cookieMaxAge);
+            response.addCookie(cookie);
+        } else if (wroteWithinWindow(request, now)) {
+            ReplicaRoutingDataSource.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReplicaRoutingDataSource.unpin();
+    }
+
+    private boolean wroteWithinWindow(HttpServletRequest request, long now) {
+        Cookie cookie = WebUtils.getCookie(request, LAST_WRITE_COOKIE);
+        if (cookie == null) {
+            return false;
+        }
+        try {
+            long age = now - Long.parseLong(cookie.getValue());
+            return age >= 0 && age < windowMillis;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exceptions;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -37,9 +38,10 @@ public class ErrorHandler {
         return new ErrorResponse("Произошла непредвиденная ошибка.");
     }
 
-    @ExceptionHandler
+    @ExceptionHandler({EntityAlreadyExistsException.class, ConcurrentUpdateException.class,
+            OptimisticLockingFailureException.class})
     @ResponseStatus(HttpStatus.CONFLICT)
-    public ErrorResponse handleThrowable(final EntityAlreadyExistsException e) {
+    public ErrorResponse handleConflict(final RuntimeException e) {
         log.error(e.getMessage());
         return new ErrorResponse(e.getMessage());
     }
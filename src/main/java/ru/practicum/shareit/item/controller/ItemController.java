@@ -3,14 +3,18 @@ package ru.practicum.shareit.item.controller;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportFormat;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.dto.ItemWithDates;
 import ru.practicum.shareit.item.service.ItemService;
 
 import javax.validation.Valid;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -26,6 +30,13 @@ public class ItemController {
         return itemService.addItem(userId, itemDto);
     }
 
+    @PostMapping(value = "/import", consumes = {ItemImportFormat.NDJSON_VALUE, ItemImportFormat.CSV_VALUE})
+    public ItemImportResult importItems(@RequestHeader(USER_HEADER) Long userId,
+                                        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                        InputStream body) {
+        return itemService.importItems(userId, ItemImportFormat.fromContentType(contentType), body);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestHeader(USER_HEADER) Long userId, @PathVariable("itemId") Long itemId,
                               @RequestBody ItemDto itemDto) {
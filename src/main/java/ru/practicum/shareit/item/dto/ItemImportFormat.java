@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.dto;
+
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+public enum ItemImportFormat {
+    NDJSON,
+    CSV;
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String CSV_VALUE = "text/csv";
+
+    public static ItemImportFormat fromContentType(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_VALUE))) {
+            return NDJSON;
+        }
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_VALUE))) {
+            return CSV;
+        }
+        throw new ValidationException("Unsupported import format " + contentType);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item.mapper;
+
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ItemImportMapper {
+    public static List<String> parseCsvHeader(String line) {
+        List<String> header = new ArrayList<>();
+        for (String column : splitCsvLine(line)) {
+            header.add(column.trim().toLowerCase());
+        }
+        if (!header.contains("name") || !header.contains("description") || !header.contains("available")) {
+            throw new ValidationException("CSV header must contain name, description and available columns");
+        }
+        return header;
+    }
+
+    public static ItemDto fromCsvLine(List<String> header, String line) {
+        List<String> values = splitCsvLine(line);
+        if (values.size() != header.size()) {
+            throw new ValidationException("Expected " + header.size() + " columns but got " + values.size());
+        }
+        ItemDto itemDto = ItemDto.builder().build();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i).isEmpty() ? null : values.get(i);
+            switch (header.get(i)) {
+                case "name":
+                    itemDto.setName(value);
+                    break;
+                case "description":
+                    itemDto.setDescription(value);
+                    break;
+                case "available":
+                    itemDto.setAvailable(value == null ? null : parseBoolean(value));
+                    break;
+                case "requestid":
+                    itemDto.setRequestId(value == null ? null : parseLong(value));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return itemDto;
+    }
+
+    public static boolean hasOpenQuote(String record) {
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+        return quoted;
+    }
+
+    private static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new ValidationException("Unterminated quoted value");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new ValidationException("Invalid available value " + value);
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid requestId value " + value);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item.mapper;
 
+import ru.practicum.shareit.booking.dto.BookingForItem;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithDates;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 
 public class ItemMapper {
     public static ItemDto toItemDto(Item item) {
@@ -32,4 +34,18 @@ public class ItemMapper {
                 item.getAvailable()
         );
     }
+
+    public static BookingForItem toLastBooking(ItemBookingSummary summary) {
+        if (summary == null || summary.getLastBookingId() == null) {
+            return null;
+        }
+        return new BookingForItem(summary.getLastBookingId(), summary.getLastBookerId());
+    }
+
+    public static BookingForItem toNextBooking(ItemBookingSummary summary) {
+        if (summary == null || summary.getNextBookingId() == null) {
+            return null;
+        }
+        return new BookingForItem(summary.getNextBookingId(), summary.getNextBookerId());
+    }
 }
@@ -2,10 +2,14 @@ package ru.practicum.shareit.item.model;
 
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Table(name = "items", schema = "public")
 @Data
 @NoArgsConstructor
@@ -14,7 +18,8 @@ import javax.persistence.*;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     Long id;
     @Column(name = "name", nullable = false)
     String name;
@@ -22,8 +27,18 @@ public class Item {
     String description;
     @Column(name = "available")
     Boolean available;
-    @Column(name = "owner_id")
+    @Column(name = "owner_id", updatable = false)
     Long ownerId;
     @Column(name = "request_id")
     Long requestId;
+    @Version
+    @Column(name = "version")
+    Long version;
+
+    public void setOwnerId(Long ownerId) {
+        if (this.ownerId != null && !this.ownerId.equals(ownerId)) {
+            throw new IllegalStateException("Owner of item " + id + " cannot be changed");
+        }
+        this.ownerId = ownerId;
+    }
 }
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "item_booking_summaries", schema = "public")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    Long itemId;
+    @Column(name = "last_booking_id")
+    Long lastBookingId;
+    @Column(name = "last_booker_id")
+    Long lastBookerId;
+    @Column(name = "next_booking_id")
+    Long nextBookingId;
+    @Column(name = "next_booker_id")
+    Long nextBookerId;
+    @Column(name = "refresh_at")
+    LocalDateTime refreshAt;
+    @Column(name = "booking_version", insertable = false, updatable = false)
+    Long bookingVersion;
+
+    public ItemBookingSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+}
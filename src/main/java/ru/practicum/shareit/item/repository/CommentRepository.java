@@ -6,6 +6,7 @@ import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,4 +16,10 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
             "from Comment as c " +
             "where c.item.id = ?1")
     List<CommentDto> findAllByItem(Long itemId);
+
+    @Query("select c from Comment as c " +
+            "join fetch c.item " +
+            "join fetch c.author " +
+            "where c.item.id in ?1")
+    List<Comment> findAllByItemIdIn(Collection<Long> itemIds);
 }
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemBookingVersion;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    @Query("select s.itemId from ItemBookingSummary as s " +
+            "where s.refreshAt <= ?1 " +
+            "order by s.refreshAt")
+    List<Long> findItemIdsToRefresh(LocalDateTime now, Pageable page);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingVersion(s.itemId, s.bookingVersion) " +
+            "from ItemBookingSummary as s " +
+            "where s.itemId in ?1")
+    List<ItemBookingVersion> findBookingVersions(Collection<Long> itemIds);
+
+    @Modifying
+    @Query("update ItemBookingSummary as s " +
+            "set s.bookingVersion = s.bookingVersion + 1 " +
+            "where s.itemId = ?1 " +
+            "and s.bookingVersion = ?2")
+    int incrementBookingVersion(Long itemId, Long version);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ItemBookingSummary as s " +
+            "set s.lastBookingId = :#{#summary.lastBookingId}, " +
+            "s.lastBookerId = :#{#summary.lastBookerId}, " +
+            "s.nextBookingId = :#{#summary.nextBookingId}, " +
+            "s.nextBookerId = :#{#summary.nextBookerId}, " +
+            "s.refreshAt = :#{#summary.refreshAt} " +
+            "where s.itemId = :#{#summary.itemId} " +
+            "and s.bookingVersion = :bookingVersion")
+    int updateSummary(@Param("summary") ItemBookingSummary summary, @Param("bookingVersion") Long bookingVersion);
+}
@@ -1,14 +1,27 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    Page<Item> findAllByOwnerId(Long ownerId, Pageable page);
+    Slice<Item> findAllByOwnerId(Long ownerId, Pageable page);
+
+    @Query("select i from Item as i " +
+            "where i.available = true " +
+            "and (upper(i.name) like upper(concat('%', ?1, '%')) escape '\\' " +
+            "or upper(i.description) like upper(concat('%', ?1, '%')) escape '\\') " +
+            "order by i.id")
+    List<Item> searchAvailableItems(String text, Pageable page);
+
+    List<Item> findAllByRequestId(Long requestId);
 
-    Page<Item> findAll(Pageable page);
-}
\ No newline at end of file
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.service.BookingEventHandler;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemBookingSummaryEventHandler implements BookingEventHandler {
+    final ItemBookingSummaryService itemBookingSummaryService;
+
+    @Override
+    public void handle(BookingEvent event) {
+        if (BookingEventType.APPROVED == event.getType()) {
+            itemBookingSummaryService.refreshSummaries(List.of(event.getItemId()));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ItemBookingSummaryService {
+    void addSummaries(Collection<Item> items);
+
+    ItemBookingSummary getSummary(Long itemId);
+
+    Map<Long, ItemBookingSummary> getSummaries(Collection<Long> itemIds);
+
+    List<ItemBookingSummary> refreshSummaries(Collection<Long> itemIds);
+
+    int refreshDueSummaries();
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemBookingVersion;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+    final ItemBookingSummaryRepository summaryRepository;
+    final BookingRepository bookingRepository;
+    final EntityManager entityManager;
+    static final int REFRESH_BATCH_SIZE = 1000;
+
+    @Transactional
+    @Override
+    public void addSummaries(Collection<Item> items) {
+        items.forEach(item -> entityManager.persist(new ItemBookingSummary(item.getId())));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ItemBookingSummary getSummary(Long itemId) {
+        ItemBookingSummary summary = summaryRepository.findById(itemId).orElse(null);
+        if (isStale(summary, LocalDateTime.now())) {
+            summary = computeSummaries(Set.of(itemId)).get(itemId);
+        }
+        return summary;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, ItemBookingSummary> getSummaries(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        Set<Long> staleItemIds = itemIds.stream()
+                .filter(itemId -> isStale(summaries.get(itemId), now))
+                .collect(Collectors.toSet());
+        if (!staleItemIds.isEmpty()) {
+            summaries.putAll(computeSummaries(staleItemIds));
+        }
+        return summaries;
+    }
+
+    @Transactional
+    @Override
+    public List<ItemBookingSummary> refreshSummaries(Collection<Long> itemIds) {
+        Map<Long, Long> bookingVersions = summaryRepository.findBookingVersions(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingVersion::getItemId, ItemBookingVersion::getVersion));
+        List<ItemBookingSummary> refreshed = new ArrayList<>();
+        for (ItemBookingSummary summary : computeSummaries(Set.copyOf(itemIds)).values()) {
+            Long bookingVersion = bookingVersions.get(summary.getItemId());
+            if (bookingVersion == null) {
+                refreshed.add(entityManager.merge(summary));
+            } else if (summaryRepository.updateSummary(summary, bookingVersion) > 0) {
+                refreshed.add(summary);
+            } else {
+                log.debug("Booking summary of item {} changed while it was refreshed", summary.getItemId());
+            }
+        }
+        return refreshed;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.refresh-interval:PT1M}",
+            initialDelayString = "${shareit.booking-summary.refresh-interval:PT1M}")
+    @Transactional
+    @Override
+    public int refreshDueSummaries() {
+        List<Long> itemIds = summaryRepository.findItemIdsToRefresh(LocalDateTime.now(),
+                PageRequest.of(0, REFRESH_BATCH_SIZE));
+        if (!itemIds.isEmpty()) {
+            refreshSummaries(itemIds);
+            log.info("Booking summaries refreshed for {} items", itemIds.size());
+        }
+        return itemIds.size();
+    }
+
+    private Map<Long, ItemBookingSummary> computeSummaries(Set<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = toBookingsByItem(
+                bookingRepository.findLastBookingsForItems(itemIds, now, BookingStatus.APPROVED));
+        Map<Long, Booking> nextBookings = toBookingsByItem(
+                bookingRepository.findNextBookingsForItems(itemIds, now, BookingStatus.APPROVED));
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        for (Long itemId : itemIds) {
+            Booking lastBooking = lastBookings.get(itemId);
+            Booking nextBooking = nextBookings.get(itemId);
+            summaries.put(itemId, ItemBookingSummary.builder()
+                    .itemId(itemId)
+                    .lastBookingId(lastBooking == null ? null : lastBooking.getId())
+                    .lastBookerId(lastBooking == null ? null : lastBooking.getBooker().getId())
+                    .nextBookingId(nextBooking == null ? null : nextBooking.getId())
+                    .nextBookerId(nextBooking == null ? null : nextBooking.getBooker().getId())
+                    .refreshAt(nextBooking == null ? null : nextBooking.getStart())
+                    .build());
+        }
+        return summaries;
+    }
+
+    private boolean isStale(ItemBookingSummary summary, LocalDateTime now) {
+        return summary == null || (summary.getRefreshAt() != null && !summary.getRefreshAt().isAfter(now));
+    }
+
+    private Map<Long, Booking> toBookingsByItem(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first));
+    }
+}
@@ -3,8 +3,11 @@ package ru.practicum.shareit.item.service;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportFormat;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.dto.ItemWithDates;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface ItemService {
@@ -20,4 +23,6 @@ public interface ItemService {
 
     CommentDto addComment(Long userId, Long itemId, CommentRequest commentRequest);
 
+    ItemImportResult importItems(Long userId, ItemImportFormat format, InputStream input);
+
 }
@@ -1,35 +1,49 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.dto.BookingForItem;
+import org.springframework.transaction.support.TransactionOperations;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportError;
+import ru.practicum.shareit.item.dto.ItemImportFormat;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.dto.ItemWithDates;
 import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemImportMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -41,6 +55,16 @@ public class ItemServiceImpl implements ItemService {
     final UserRepository userRepository;
     final BookingRepository bookingRepository;
     final CommentRepository commentRepository;
+    final TransactionOperations transactionOperations;
+    final EntityManager entityManager;
+    final ObjectMapper objectMapper;
+    final Validator validator;
+    final ItemBookingSummaryService itemBookingSummaryService;
+    static final int IMPORT_CHUNK_SIZE = 500;
+    static final int IMPORT_MAX_ERRORS = 1000;
+    static final int IMPORT_MAX_RECORD_LENGTH = 10_000;
+    static final int IMPORT_NAME_MAX_LENGTH = 100;
+    static final int IMPORT_DESCRIPTION_MAX_LENGTH = 200;
 
     @Transactional
     @Override
@@ -52,6 +76,7 @@ public class ItemServiceImpl implements ItemService {
             item.setRequestId(itemDto.getRequestId());
         }
         Item savedItem = itemRepository.save(item);
+        itemBookingSummaryService.addSummaries(List.of(savedItem));
         log.info("New item added : {}", savedItem);
         return ItemMapper.toItemDto(savedItem);
     }
@@ -76,43 +101,52 @@ public class ItemServiceImpl implements ItemService {
         return ItemMapper.toItemDto(itemRepository.save(item));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public ItemWithDates getItemById(Long userId, Long itemId) {
         Item item = getItemIfItExists(userId, itemId);
         ItemWithDates itemWithDates = ItemMapper.toItemWithDatesDto(item);
-        LocalDateTime currentTime = LocalDateTime.now();
         if (item.getOwnerId().equals(userId)) {
-            BookingForItem lastBooking = bookingRepository.findLastBookingForItem(itemId, currentTime, BookingStatus.APPROVED)
-                    .stream().findFirst().orElse(null);
-            BookingForItem nextBooking = bookingRepository.findNextBookingForItem(itemId, currentTime, BookingStatus.APPROVED)
-                    .stream().findFirst().orElse(null);
-            itemWithDates.setLastBooking(lastBooking);
-            itemWithDates.setNextBooking(nextBooking);
+            ItemBookingSummary summary = itemBookingSummaryService.getSummary(itemId);
+            itemWithDates.setLastBooking(ItemMapper.toLastBooking(summary));
+            itemWithDates.setNextBooking(ItemMapper.toNextBooking(summary));
         }
         List<CommentDto> comments = commentRepository.findAllByItem(itemId);
         itemWithDates.setComments(comments);
         return itemWithDates;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<ItemWithDates> getUserItems(Long userId, int from, int size) {
         getUserIfItExists(userId);
-        PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-        Page<Item> items = itemRepository.findAllByOwnerId(userId, page);
-        return items.stream().map(item -> getItemById(userId, item.getId()))
-                .sorted(Comparator.comparing(ItemWithDates::getId)).collect(Collectors.toList());
+        PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size, Sort.by("id"));
+        List<Item> items = itemRepository.findAllByOwnerId(userId, page).getContent();
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.getSummaries(itemIds);
+        Map<Long, List<CommentDto>> comments = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+        return items.stream().map(item -> {
+            ItemWithDates itemWithDates = ItemMapper.toItemWithDatesDto(item);
+            itemWithDates.setLastBooking(ItemMapper.toLastBooking(summaries.get(item.getId())));
+            itemWithDates.setNextBooking(ItemMapper.toNextBooking(summaries.get(item.getId())));
+            itemWithDates.setComments(comments.getOrDefault(item.getId(), List.of()));
+            return itemWithDates;
+        }).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<ItemDto> searchItems(String text, int from, int size) {
         if (text.isEmpty()) {
             return List.of();
         }
-        String textSearch = text.toLowerCase();
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-        return itemRepository.findAll(page).stream()
-                .filter(item -> item.getName().toLowerCase().contains(textSearch)
-                || (item.getDescription().toLowerCase().contains(textSearch) && item.getAvailable()))
+        return itemRepository.searchAvailableItems(escapeLikePattern(text), page).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
@@ -120,14 +154,128 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public CommentDto addComment(Long userId, Long itemId, CommentRequest commentRequest) {
         checkUserToComment(userId, itemId);
+        User author = getUserIfItExists(userId);
         Comment comment = CommentMapper.toCommentModel(commentRequest);
-        comment.setItem(getItemIfItExists(userId, itemId));
-        comment.setAuthor(getUserIfItExists(userId));
+        comment.setItem(getItemIfItExists(itemId));
+        comment.setAuthor(author);
         Comment newComment = commentRepository.save(comment);
         log.info("New comment added : {}", newComment);
         return CommentMapper.toCommentDto(newComment);
     }
 
+    @Override
+    public ItemImportResult importItems(Long userId, ItemImportFormat format, InputStream input) {
+        checkUser(userId);
+        ItemImportResult result = new ItemImportResult();
+        List<Item> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        long lineNumber = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            if (format == ItemImportFormat.CSV) {
+                header = readCsvHeader(reader);
+                lineNumber++;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                long recordLine = lineNumber;
+                String next;
+                while (format == ItemImportFormat.CSV && ItemImportMapper.hasOpenQuote(line)
+                        && line.length() < IMPORT_MAX_RECORD_LENGTH && (next = reader.readLine()) != null) {
+                    lineNumber++;
+                    line = line + "\n" + next;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    ItemDto itemDto = parseImportLine(format, header, line);
+                    Item item = ItemMapper.fromDtoToItem(itemDto);
+                    item.setId(null);
+                    item.setOwnerId(userId);
+                    item.setRequestId(itemDto.getRequestId());
+                    chunk.add(item);
+                } catch (ValidationException e) {
+                    addImportError(result, recordLine, e.getMessage());
+                }
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    saveImportChunk(userId, chunk, result);
+                }
+            }
+        } catch (IOException e) {
+            result.setInterrupted(true);
+            result.getErrors().add(new ItemImportError(lineNumber + 1, "Import interrupted: " + e.getMessage()));
+            log.warn("Item import for user {} interrupted at line {} : {}", userId, lineNumber + 1, e.getMessage());
+        }
+        saveImportChunk(userId, chunk, result);
+        log.info("Item import finished for user {} : {} imported, {} failed",
+                userId, result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private List<String> readCsvHeader(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            throw new ValidationException("CSV header is missing");
+        }
+        return ItemImportMapper.parseCsvHeader(line);
+    }
+
+    private ItemDto parseImportLine(ItemImportFormat format, List<String> header, String line) {
+        ItemDto itemDto;
+        if (format == ItemImportFormat.CSV) {
+            itemDto = ItemImportMapper.fromCsvLine(header, line);
+        } else {
+            try {
+                itemDto = objectMapper.readValue(line, ItemDto.class);
+            } catch (JsonProcessingException e) {
+                throw new ValidationException("Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+        List<String> violations = validator.validate(itemDto).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (itemDto.getName() != null && itemDto.getName().length() > IMPORT_NAME_MAX_LENGTH) {
+            violations.add("name size must be between 0 and " + IMPORT_NAME_MAX_LENGTH);
+        }
+        if (itemDto.getDescription() != null && itemDto.getDescription().length() > IMPORT_DESCRIPTION_MAX_LENGTH) {
+            violations.add("description size must be between 0 and " + IMPORT_DESCRIPTION_MAX_LENGTH);
+        }
+        violations.sort(null);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(String.join(", ", violations));
+        }
+        return itemDto;
+    }
+
+    private String escapeLikePattern(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private void addImportError(ItemImportResult result, long lineNumber, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < IMPORT_MAX_ERRORS) {
+            result.getErrors().add(new ItemImportError(lineNumber, message));
+        }
+    }
+
+    private void saveImportChunk(Long userId, List<Item> chunk, ItemImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionOperations.executeWithoutResult(status -> {
+            itemRepository.saveAll(chunk);
+            itemBookingSummaryService.addSummaries(chunk);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        result.setImported(result.getImported() + chunk.size());
+        chunk.clear();
+        log.info("Item import for user {} : {} items saved", userId, result.getImported());
+    }
+
     private User getUserIfItExists(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("No user with id " + userId));
@@ -143,6 +291,10 @@ public class ItemServiceImpl implements ItemService {
 
     private Item getItemIfItExists(Long userId, Long itemId) {
         getUserIfItExists(userId);
+        return getItemIfItExists(itemId);
+    }
+
+    private Item getItemIfItExists(Long itemId) {
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new EntityNotFoundException("No item with id " + itemId));
     }
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.service.BookingEventHandler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingEventMetricsHandler implements BookingEventHandler {
+    static final String METRIC_NAME = "bookings.events";
+    static final String LAG_METRIC_NAME = "bookings.events.lag";
+    final MeterRegistry meterRegistry;
+
+    @Override
+    public void handle(BookingEvent event) {
+        Counter.builder(METRIC_NAME)
+                .description("Booking events dispatched to handlers")
+                .tag("type", event.getType().name())
+                .register(meterRegistry)
+                .increment();
+        meterRegistry.timer(LAG_METRIC_NAME).record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public SqlStatementCounter sqlStatementCounter(MeterRegistry meterRegistry) {
+        return new SqlStatementCounter(Counter.builder(SqlStatementCounter.BACKGROUND_METRIC_NAME)
+                .description("SQL statements executed outside an HTTP request")
+                .register(meterRegistry));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Bean
+    public WebMvcConfigurer sqlStatementMetricsConfigurer(SqlStatementCounter sqlStatementCounter,
+                                                          MeterRegistry meterRegistry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new SqlStatementMetricsInterceptor(sqlStatementCounter, meterRegistry));
+            }
+        };
+    }
+
+    @Bean
+    public SmartInitializingSingleton entityCacheMetricsBinder(EntityManagerFactory entityManagerFactory,
+                                                               MeterRegistry meterRegistry) {
+        return () -> {
+            RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getCache().getRegionFactory();
+            if (!(regionFactory instanceof JCacheRegionFactory)) {
+                return;
+            }
+            CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+            for (String cacheName : cacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(meterRegistry, cacheManager.getCache(cacheName));
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class SqlStatementCounter implements StatementInspector {
+    static final String BACKGROUND_METRIC_NAME = "sql.statements.background";
+    private final ThreadLocal<long[]> counter = new ThreadLocal<>();
+    private final Counter backgroundStatements;
+
+    public SqlStatementCounter(Counter backgroundStatements) {
+        this.backgroundStatements = backgroundStatements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = counter.get();
+        if (count != null) {
+            count[0]++;
+        } else {
+            backgroundStatements.increment();
+        }
+        return sql;
+    }
+
+    public void start() {
+        counter.set(new long[1]);
+    }
+
+    public long stop() {
+        long[] count = counter.get();
+        counter.remove();
+        return count == null ? 0 : count[0];
+    }
+}
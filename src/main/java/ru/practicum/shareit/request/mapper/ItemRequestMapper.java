@@ -1,9 +1,11 @@
 package ru.practicum.shareit.request.mapper;
 
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 public class ItemRequestMapper {
@@ -13,12 +15,12 @@ public class ItemRequestMapper {
         return itemRequest;
     }
 
-    public static ItemRequestDto fromModelToDto(ItemRequest itemRequest) {
+    public static ItemRequestDto fromModelToDto(ItemRequest itemRequest, List<Item> items) {
         return new ItemRequestDto(
                 itemRequest.getId(),
                 itemRequest.getDescription(),
                 itemRequest.getCreated(),
-                itemRequest.getItems().stream().map(ItemMapper::toItemDto).collect(Collectors.toList())
+                items.stream().map(ItemMapper::toItemDto).collect(Collectors.toList())
         );
     }
 }
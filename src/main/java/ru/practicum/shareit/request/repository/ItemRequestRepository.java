@@ -1,8 +1,9 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -10,9 +11,11 @@ import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @Query("select r from ItemRequest as r " +
+            "where r.user.id = ?1")
     List<ItemRequest> findAllByUserId(Long userId);
 
-    ItemRequest findAllById(Long requestId);
-
-    Page<ItemRequest> findAllByUserIdIsNot(Long userId, Pageable page);
+    @Query("select r from ItemRequest as r " +
+            "where r.user.id <> ?1")
+    Slice<ItemRequest> findAllByUserIdIsNot(Long userId, Pageable page);
 }
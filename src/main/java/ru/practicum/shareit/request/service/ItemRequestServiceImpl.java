@@ -7,7 +7,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -15,8 +18,8 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,38 +29,51 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
     final ItemRequestRepository itemRequestRepository;
     final UserRepository userRepository;
+    final ItemRepository itemRepository;
 
     @Override
     public ItemRequestDto addItemRequest(Long userId, ItemRequestDto itemRequestDto) {
         ItemRequest itemRequest = ItemRequestMapper.fromDtoToModel(itemRequestDto);
         itemRequest.setUser(getUserIfItExists(userId));
-        itemRequest.setItems(new ArrayList<>());
-        ItemRequest newItemRequest = itemRequestRepository.save(itemRequest);
+        ItemRequest newItemRequest = itemRequestRepository.saveAndFlush(itemRequest);
         log.info("New item request added : {}", newItemRequest);
-        return ItemRequestMapper.fromModelToDto(newItemRequest);
+        return ItemRequestMapper.fromModelToDto(newItemRequest, List.of());
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<ItemRequestDto> getAllUserRequests(Long userId) {
         checkUser(userId);
-        return itemRequestRepository.findAllByUserId(userId).stream()
-                .map(ItemRequestMapper::fromModelToDto).collect(Collectors.toList());
+        return toItemRequestDtos(itemRequestRepository.findAllByUserId(userId));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
         checkUser(userId);
-        checkRequest(requestId);
-        return ItemRequestMapper.fromModelToDto(itemRequestRepository.findAllById(requestId));
+        ItemRequest itemRequest = getRequestIfItExists(requestId);
+        return ItemRequestMapper.fromModelToDto(itemRequest, itemRepository.findAllByRequestId(requestId));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<ItemRequestDto> getAllRequests(Long userId, int from, int size) {
         checkUser(userId);
         Sort sort = Sort.by("created");
         PageRequest page = PageRequest.of(from, size, sort);
-        return itemRequestRepository.findAllByUserIdIsNot(userId, page)
-                .getContent().stream().map(ItemRequestMapper::fromModelToDto)
+        return toItemRequestDtos(itemRequestRepository.findAllByUserIdIsNot(userId, page).getContent());
+    }
+
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
+        List<Long> requestIds = itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Long, List<Item>> itemsByRequest = itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+        return itemRequests.stream()
+                .map(itemRequest -> ItemRequestMapper.fromModelToDto(itemRequest,
+                        itemsByRequest.getOrDefault(itemRequest.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
@@ -74,11 +90,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         }
     }
 
-    private boolean checkRequest(Long requestId) {
-        if (itemRequestRepository.findById(requestId).isEmpty()) {
-            throw new EntityNotFoundException("No request with id " + requestId);
-        } else {
-            return true;
-        }
+    private ItemRequest getRequestIfItExists(Long requestId) {
+        return itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new EntityNotFoundException("No request with id " + requestId));
     }
 }
@@ -4,6 +4,7 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.EntityAlreadyExistsException;
@@ -22,14 +23,15 @@ import java.util.stream.Collectors;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class UserServiceImpl implements UserService {
     final UserRepository userRepository;
+    static final String EMAIL_CONSTRAINT = "UQ_USER_EMAIL";
 
     @Transactional
     @Override
     public UserDto addUser(UserDto userDto) {
-        if (checkEmail(userDto)) {
+        if (userRepository.existsByEmail(userDto.getEmail())) {
             throw new EntityAlreadyExistsException("User with email " + userDto.getEmail() + " already exists");
         }
-        User user = userRepository.save(UserMapper.fromDtoToUser(userDto));
+        User user = saveUser(UserMapper.fromDtoToUser(userDto));
         log.info("New user added : {}", user);
         return UserMapper.toUserDto(user);
     }
@@ -41,23 +43,23 @@ public class UserServiceImpl implements UserService {
         if (userDto.getName() != null) {
                 user.setName(userDto.getName());
         }
-        if (userDto.getEmail() != null) {
-            if (checkEmail(userDto)) {
-                if (!user.getEmail().equals(userDto.getEmail())) {
-                    throw new EntityAlreadyExistsException("User with email " + user.getEmail() + " already exists");
-                }
+        if (userDto.getEmail() != null && !user.getEmail().equals(userDto.getEmail())) {
+            if (userRepository.existsByEmail(userDto.getEmail())) {
+                throw new EntityAlreadyExistsException("User with email " + userDto.getEmail() + " already exists");
             }
             user.setEmail(userDto.getEmail());
         }
         log.info("User updated : {}", user);
-        return UserMapper.toUserDto(userRepository.save(user));
+        return UserMapper.toUserDto(saveUser(user));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public UserDto getUserById(Long userId) {
         return UserMapper.toUserDto(getUserIfItExists(userId));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream().map(UserMapper::toUserDto).collect(Collectors.toList());
@@ -74,7 +76,19 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new EntityNotFoundException("No user with id " + userId));
     }
 
-    private boolean checkEmail(UserDto userDto) {
-        return userRepository.findAll().stream().anyMatch(user -> user.getEmail().equals(userDto.getEmail()));
+    private User saveUser(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConstraintViolation(e)) {
+                throw new EntityAlreadyExistsException("User with email " + user.getEmail() + " already exists");
+            }
+            throw e;
+        }
+    }
+
+    private boolean isEmailConstraintViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toUpperCase().contains(EMAIL_CONSTRAINT);
     }
 }
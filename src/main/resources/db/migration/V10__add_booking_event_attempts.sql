@@ -0,0 +1,2 @@
+ALTER TABLE booking_events ADD COLUMN IF NOT EXISTS attempts INT NOT NULL DEFAULT 0;
+ALTER TABLE booking_events ADD COLUMN IF NOT EXISTS failed_at TIMESTAMP WITHOUT TIME ZONE;
@@ -0,0 +1 @@
+ALTER TABLE item_booking_summaries ADD COLUMN IF NOT EXISTS booking_version BIGINT NOT NULL DEFAULT 0;
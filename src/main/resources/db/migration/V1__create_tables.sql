@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS comments CASCADE;
-DROP TABLE IF EXISTS requests CASCADE;
-
 CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   name VARCHAR(255) NOT NULL,
@@ -35,6 +29,8 @@ CREATE TABLE IF NOT EXISTS bookings (
   CONSTRAINT fk_bookings_to_items FOREIGN KEY(item_id) REFERENCES items(id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start_end ON bookings (item_id, start_date, end_date);
+
 CREATE TABLE IF NOT EXISTS comments (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   text varchar(512),
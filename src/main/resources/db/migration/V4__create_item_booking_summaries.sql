@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS item_booking_summaries (
+  item_id BIGINT NOT NULL,
+  last_booking_id BIGINT,
+  last_booker_id BIGINT,
+  next_booking_id BIGINT,
+  next_booker_id BIGINT,
+  refresh_at TIMESTAMP WITHOUT TIME ZONE,
+  CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+  CONSTRAINT fk_item_booking_summaries_to_items FOREIGN KEY(item_id) REFERENCES items(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summaries_refresh_at ON item_booking_summaries (refresh_at);
+
+INSERT INTO item_booking_summaries (item_id, refresh_at)
+SELECT i.id, CURRENT_TIMESTAMP FROM items i
+WHERE NOT EXISTS (SELECT 1 FROM item_booking_summaries s WHERE s.item_id = i.id);
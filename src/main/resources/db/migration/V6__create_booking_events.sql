@@ -0,0 +1,15 @@
+CREATE SEQUENCE IF NOT EXISTS booking_events_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS booking_events (
+  id BIGINT NOT NULL,
+  booking_id BIGINT NOT NULL,
+  item_id BIGINT NOT NULL,
+  owner_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  type VARCHAR(20) NOT NULL,
+  created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  processed_at TIMESTAMP WITHOUT TIME ZONE,
+  CONSTRAINT pk_booking_event PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_events_processed_at ON booking_events (processed_at, id);
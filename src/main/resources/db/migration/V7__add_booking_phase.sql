@@ -0,0 +1,14 @@
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR(10);
+
+UPDATE bookings SET phase = CASE
+  WHEN end_date < CURRENT_TIMESTAMP THEN 'PAST'
+  WHEN start_date > CURRENT_TIMESTAMP THEN 'FUTURE'
+  ELSE 'CURRENT'
+END;
+
+ALTER TABLE bookings ALTER COLUMN phase SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_phase_start ON bookings (booker_id, phase, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_phase_start ON bookings (item_id, phase, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_phase_start ON bookings (phase, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_phase_end ON bookings (phase, end_date);
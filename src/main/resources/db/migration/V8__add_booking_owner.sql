@@ -0,0 +1,15 @@
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+
+UPDATE bookings SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = bookings.item_id);
+
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+ALTER TABLE bookings ADD CONSTRAINT fk_bookings_owner_to_users FOREIGN KEY (owner_id) REFERENCES users(id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (owner_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start ON bookings (owner_id, status, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_phase_start ON bookings (owner_id, phase, start_date DESC);
+
+DROP INDEX IF EXISTS idx_bookings_item_phase_start;
@@ -0,0 +1,108 @@
+package ru.practicum.shareit;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class EntityCacheTest {
+    @Autowired
+    UserService userService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    MeterRegistry meterRegistry;
+    Statistics statistics;
+    UserDto user;
+
+    @BeforeEach
+    void start() {
+        user = userService.addUser(UserDto.builder().name("user").email("user@user.com").build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getUserById_whenUserWasLoadedBefore_thenReadFromCache() {
+        userService.getUserById(user.getId());
+        statistics.clear();
+        userService.getUserById(user.getId());
+        userService.getUserById(user.getId());
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("result", "hit").functionCounter().count() > 0);
+    }
+
+    @Test
+    void getUserById_whenUserWasLoadedBefore_thenPublishCacheHitMetric() {
+        userService.getUserById(user.getId());
+        userService.getUserById(user.getId());
+
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count() > 0);
+    }
+
+    @Test
+    void cacheRegions_whenCreated_thenExpireAfterWrite() {
+        CacheManager cacheManager = ((JCacheRegionFactory) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache().getRegionFactory()).getCacheManager();
+
+        assertEquals(OptionalLong.of(Duration.ofMinutes(10).toNanos()), cacheManager.getCache("users")
+                .getConfiguration(CaffeineConfiguration.class).getExpireAfterWrite());
+        assertEquals(OptionalLong.of(Duration.ofMinutes(1).toNanos()), cacheManager.getCache("items")
+                .getConfiguration(CaffeineConfiguration.class).getExpireAfterWrite());
+    }
+
+    @Test
+    void getUserById_whenUserWasUpdated_thenReturnUpdatedUser() {
+        userService.getUserById(user.getId());
+        userService.updateUser(user.getId(), UserDto.builder().name("updated").build());
+        statistics.clear();
+
+        assertEquals("updated", userService.getUserById(user.getId()).getName());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void updateItem_whenItemWasUpdated_thenCacheHoldsUpdatedItem() {
+        ItemDto item = itemService.addItem(user.getId(),
+                ItemDto.builder().name("item").description("description").available(true).build());
+        itemService.updateItem(user.getId(), item.getId(), ItemDto.builder().available(false).build());
+        statistics.clear();
+
+        assertEquals(false, itemService.getItemById(user.getId(), item.getId()).getAvailable());
+        assertEquals(0, statistics.getEntityStatistics(Item.class.getName()).getLoadCount());
+    }
+}
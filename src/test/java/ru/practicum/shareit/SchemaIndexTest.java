@@ -0,0 +1,282 @@
+package ru.practicum.shareit;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+
+@DataJpaTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class SchemaIndexTest {
+    static final PageRequest PAGE = PageRequest.of(0, 10);
+    static final LocalDateTime NOW = LocalDateTime.now();
+    static final List<BookingPhase> NOT_ENDED_PHASES = List.of(BookingPhase.FUTURE, BookingPhase.CURRENT);
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    SqlRecorder sqlRecorder;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    BookingEventRepository bookingEventRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    @BeforeAll
+    void seed() {
+        // H2 backs every foreign key with a single-column index, PostgreSQL does not. Without the constraints only
+        // the migration indexes are left, so each plan below can only use the index the migrations add for it.
+        jdbcTemplate.query("SELECT table_name, constraint_name FROM information_schema.table_constraints " +
+                        "WHERE constraint_type = 'FOREIGN KEY' AND table_schema = 'PUBLIC'",
+                (RowCallbackHandler) row -> jdbcTemplate.execute("ALTER TABLE " + row.getString(1) +
+                        " DROP CONSTRAINT " + row.getString(2)));
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (id, name, email) " +
+                        "SELECT x, 'user', 'user' || x || '@mail.com' FROM SYSTEM_RANGE(1, 100)",
+                "INSERT INTO items (id, name, description, available, owner_id, request_id) " +
+                        "SELECT x, 'item', 'description', TRUE, MOD(x, 100) + 1, MOD(x, 500) + 1 " +
+                        "FROM SYSTEM_RANGE(1, 1000)",
+                "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, status, phase) " +
+                        "SELECT x, DATEADD(DAY, MOD(x, 30) - 15, CURRENT_TIMESTAMP), " +
+                        "DATEADD(DAY, MOD(x, 30) - 14, CURRENT_TIMESTAMP), MOD(x, 1000) + 1, MOD(x, 97) + 1, " +
+                        "MOD(MOD(x, 1000) + 1, 100) + 1, CASEWHEN(MOD(x, 2) = 0, 'APPROVED', 'WAITING'), " +
+                        "CASEWHEN(MOD(x, 30) < 14, 'PAST', CASEWHEN(MOD(x, 30) > 15, 'FUTURE', 'CURRENT')) " +
+                        "FROM SYSTEM_RANGE(1, 10000)",
+                "INSERT INTO comments (id, text, item_id, author_id, created_date) " +
+                        "SELECT x, 'comment', MOD(x, 1000) + 1, MOD(x, 100) + 1, CURRENT_TIMESTAMP " +
+                        "FROM SYSTEM_RANGE(1, 1000)",
+                "INSERT INTO requests (id, description, created_date, user_id) " +
+                        "SELECT x, 'request', DATEADD(MINUTE, x, CURRENT_TIMESTAMP), MOD(x, 100) + 1 " +
+                        "FROM SYSTEM_RANGE(1, 1000)",
+                "INSERT INTO booking_events (id, booking_id, item_id, owner_id, booker_id, type, created_at, " +
+                        "processed_at) " +
+                        "SELECT x, x, MOD(x, 1000) + 1, 1, 1, 'CREATED', CURRENT_TIMESTAMP, " +
+                        "CASEWHEN(MOD(x, 10) = 0, NULL, CURRENT_TIMESTAMP) FROM SYSTEM_RANGE(1, 1000)",
+                "INSERT INTO item_booking_summaries (item_id, refresh_at) " +
+                        "SELECT x, CASEWHEN(MOD(x, 10) = 0, CURRENT_TIMESTAMP, NULL) FROM SYSTEM_RANGE(1, 1000)",
+                "ANALYZE");
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                query("BookingRepository.findAllByBookerIdOrderByStartDesc", "IDX_BOOKINGS_BOOKER_START",
+                        test -> test.bookingRepository.findAllByBookerIdOrderByStartDesc(1L, PAGE)),
+                query("BookingRepository.findCurrentByBookerId", "IDX_BOOKINGS_BOOKER_PHASE_START",
+                        test -> test.bookingRepository.findCurrentByBookerId(1L, NOT_ENDED_PHASES, NOW, PAGE)),
+                query("BookingRepository.findPastByBookerId", "IDX_BOOKINGS_BOOKER_START",
+                        test -> test.bookingRepository.findPastByBookerId(1L, NOW, PAGE)),
+                query("BookingRepository.findFutureByBookerId", "IDX_BOOKINGS_BOOKER_PHASE_START",
+                        test -> test.bookingRepository.findFutureByBookerId(1L, BookingPhase.FUTURE, NOW, PAGE)),
+                query("BookingRepository.findAllByBookerIdAndStatusOrderByStartDesc",
+                        "IDX_BOOKINGS_BOOKER_STATUS_START",
+                        test -> test.bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(1L,
+                                BookingStatus.WAITING, PAGE)),
+                query("BookingRepository.findAllByOwnerIdOrderByStartDesc", "IDX_BOOKINGS_OWNER_START",
+                        test -> test.bookingRepository.findAllByOwnerIdOrderByStartDesc(1L, PAGE)),
+                query("BookingRepository.findCurrentByOwnerId", "IDX_BOOKINGS_OWNER_PHASE_START",
+                        test -> test.bookingRepository.findCurrentByOwnerId(1L, NOT_ENDED_PHASES, NOW, PAGE)),
+                query("BookingRepository.findPastByOwnerId", "IDX_BOOKINGS_OWNER_START",
+                        test -> test.bookingRepository.findPastByOwnerId(1L, NOW, PAGE)),
+                query("BookingRepository.findFutureByOwnerId", "IDX_BOOKINGS_OWNER_PHASE_START",
+                        test -> test.bookingRepository.findFutureByOwnerId(1L, BookingPhase.FUTURE, NOW, PAGE)),
+                query("BookingRepository.findAllByOwnerIdAndStatusOrderByStartDesc", "IDX_BOOKINGS_OWNER_STATUS_START",
+                        test -> test.bookingRepository.findAllByOwnerIdAndStatusOrderByStartDesc(1L,
+                                BookingStatus.WAITING, PAGE)),
+                query("BookingRepository.findAllByBookerIdBeforeCursor", "IDX_BOOKINGS_BOOKER_START",
+                        test -> test.bookingRepository.findAllByBookerIdBeforeCursor(1L, NOW, 1L, PAGE)),
+                query("BookingRepository.findCurrentByBookerIdBeforeCursor", "IDX_BOOKINGS_BOOKER_PHASE_START",
+                        test -> test.bookingRepository.findCurrentByBookerIdBeforeCursor(1L, NOT_ENDED_PHASES,
+                                NOW, NOW, 1L, PAGE)),
+                query("BookingRepository.findPastByBookerIdBeforeCursor", "IDX_BOOKINGS_BOOKER_START",
+                        test -> test.bookingRepository.findPastByBookerIdBeforeCursor(1L, NOW, NOW, 1L, PAGE)),
+                query("BookingRepository.findFutureByBookerIdBeforeCursor", "IDX_BOOKINGS_BOOKER_PHASE_START",
+                        test -> test.bookingRepository.findFutureByBookerIdBeforeCursor(1L, BookingPhase.FUTURE,
+                                NOW, NOW, 1L, PAGE)),
+                query("BookingRepository.findByBookerIdAndStatusBeforeCursor", "IDX_BOOKINGS_BOOKER_STATUS_START",
+                        test -> test.bookingRepository.findByBookerIdAndStatusBeforeCursor(1L,
+                                BookingStatus.WAITING, NOW, 1L, PAGE)),
+                query("BookingRepository.findAllByOwnerIdBeforeCursor", "IDX_BOOKINGS_OWNER_START",
+                        test -> test.bookingRepository.findAllByOwnerIdBeforeCursor(1L, NOW, 1L, PAGE)),
+                query("BookingRepository.findCurrentByOwnerIdBeforeCursor", "IDX_BOOKINGS_OWNER_PHASE_START",
+                        test -> test.bookingRepository.findCurrentByOwnerIdBeforeCursor(1L, NOT_ENDED_PHASES,
+                                NOW, NOW, 1L, PAGE)),
+                query("BookingRepository.findPastByOwnerIdBeforeCursor", "IDX_BOOKINGS_OWNER_START",
+                        test -> test.bookingRepository.findPastByOwnerIdBeforeCursor(1L, NOW, NOW, 1L, PAGE)),
+                query("BookingRepository.findFutureByOwnerIdBeforeCursor", "IDX_BOOKINGS_OWNER_PHASE_START",
+                        test -> test.bookingRepository.findFutureByOwnerIdBeforeCursor(1L, BookingPhase.FUTURE,
+                                NOW, NOW, 1L, PAGE)),
+                query("BookingRepository.findByOwnerIdAndStatusBeforeCursor", "IDX_BOOKINGS_OWNER_STATUS_START",
+                        test -> test.bookingRepository.findByOwnerIdAndStatusBeforeCursor(1L,
+                                BookingStatus.WAITING, NOW, 1L, PAGE)),
+                query("BookingRepository.findNextBookingsForItems", "IDX_BOOKINGS_ITEM_STATUS_START",
+                        test -> test.bookingRepository.findNextBookingsForItems(List.of(1L), NOW,
+                                BookingStatus.APPROVED)),
+                query("BookingRepository.findLastBookingsForItems", "IDX_BOOKINGS_ITEM_STATUS_START",
+                        test -> test.bookingRepository.findLastBookingsForItems(List.of(1L), NOW,
+                                BookingStatus.APPROVED)),
+                query("BookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter",
+                        "IDX_BOOKINGS_ITEM_START_END",
+                        test -> test.bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(1L,
+                                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), NOW, NOW)),
+                query("BookingRepository.updatePhaseWhenStartIsNotAfter", "IDX_BOOKINGS_PHASE_START",
+                        test -> test.bookingRepository.updatePhaseWhenStartIsNotAfter(BookingPhase.CURRENT,
+                                BookingPhase.FUTURE, NOW)),
+                query("BookingRepository.updatePhaseWhenEndIsBefore", "IDX_BOOKINGS_PHASE_END",
+                        test -> test.bookingRepository.updatePhaseWhenEndIsBefore(BookingPhase.PAST,
+                                List.of(BookingPhase.CURRENT), NOW)),
+                query("BookingEventRepository.findPendingIds", "IDX_BOOKING_EVENTS_PROCESSED_AT",
+                        test -> test.bookingEventRepository.findPendingIds(PAGE)),
+                query("ItemBookingSummaryRepository.findItemIdsToRefresh", "IDX_ITEM_BOOKING_SUMMARIES_REFRESH_AT",
+                        test -> test.summaryRepository.findItemIdsToRefresh(NOW, PAGE)),
+                query("ItemRepository.findAllByOwnerId", "IDX_ITEMS_OWNER",
+                        test -> test.itemRepository.findAllByOwnerId(1L, PageRequest.of(0, 10, Sort.by("id")))),
+                query("ItemRepository.findAllByRequestIdIn", "IDX_ITEMS_REQUEST",
+                        test -> test.itemRepository.findAllByRequestIdIn(List.of(1L, 2L))),
+                query("CommentRepository.findAllByItem", "IDX_COMMENTS_ITEM",
+                        test -> test.commentRepository.findAllByItem(1L)),
+                query("ItemRequestRepository.findAllByUserId", "IDX_REQUESTS_USER_CREATED",
+                        test -> test.itemRequestRepository.findAllByUserId(1L)),
+                query("ItemRequestRepository.findAllByUserIdIsNot", "IDX_REQUESTS_CREATED",
+                        test -> test.itemRequestRepository.findAllByUserIdIsNot(1L,
+                                PageRequest.of(0, 10, Sort.by("created"))))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void queryUsesIndex(String repositoryMethod, String index, Consumer<SchemaIndexTest> query) {
+        List<String> statements = sqlRecorder.record(() -> query.accept(this));
+
+        assertThat(statements, hasSize(1));
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + statements.get(0), String.class);
+        assertThat(plan, containsString("PUBLIC." + index));
+    }
+
+    @ParameterizedTest(name = "{0}.{1}")
+    @CsvSource({
+            "BOOKINGS, IDX_BOOKINGS_BOOKER_START",
+            "BOOKINGS, IDX_BOOKINGS_BOOKER_STATUS_START",
+            "BOOKINGS, IDX_BOOKINGS_ITEM_STATUS_START",
+            "BOOKINGS, IDX_BOOKINGS_ITEM_START_END",
+            "BOOKINGS, IDX_BOOKINGS_BOOKER_PHASE_START",
+            "BOOKINGS, IDX_BOOKINGS_OWNER_START",
+            "BOOKINGS, IDX_BOOKINGS_OWNER_STATUS_START",
+            "BOOKINGS, IDX_BOOKINGS_OWNER_PHASE_START",
+            "BOOKINGS, IDX_BOOKINGS_PHASE_START",
+            "BOOKINGS, IDX_BOOKINGS_PHASE_END",
+            "ITEMS, IDX_ITEMS_OWNER",
+            "ITEMS, IDX_ITEMS_REQUEST",
+            "COMMENTS, IDX_COMMENTS_ITEM",
+            "REQUESTS, IDX_REQUESTS_USER_CREATED",
+            "REQUESTS, IDX_REQUESTS_CREATED",
+            "ITEM_BOOKING_SUMMARIES, IDX_ITEM_BOOKING_SUMMARIES_REFRESH_AT",
+            "BOOKING_EVENTS, IDX_BOOKING_EVENTS_PROCESSED_AT"
+    })
+    void indexExists(String table, String index) {
+        assertThat(getIndexNames(table), hasItem(index));
+    }
+
+    private static Arguments query(String repositoryMethod, String index, Consumer<SchemaIndexTest> query) {
+        return Arguments.of(repositoryMethod, index, query);
+    }
+
+    private List<String> getIndexNames(String table) {
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            List<String> names = new ArrayList<>();
+            try (ResultSet indexes = connection.getMetaData().getIndexInfo(null, "PUBLIC", table, false, false)) {
+                while (indexes.next()) {
+                    names.add(indexes.getString("INDEX_NAME"));
+                }
+            }
+            return names;
+        });
+    }
+
+    static class SqlRecorder implements StatementInspector {
+        final List<String> statements = new ArrayList<>();
+        boolean recording;
+
+        @Override
+        public synchronized String inspect(String sql) {
+            if (recording) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+
+        synchronized List<String> record(Runnable action) {
+            statements.clear();
+            recording = true;
+            try {
+                action.run();
+            } finally {
+                recording = false;
+            }
+            return new ArrayList<>(statements);
+        }
+    }
+
+    @TestConfiguration
+    static class SqlRecorderConfig {
+        @Bean
+        SqlRecorder sqlRecorder() {
+            return new SqlRecorder();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlRecorderCustomizer(SqlRecorder sqlRecorder) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlRecorder);
+        }
+    }
+}
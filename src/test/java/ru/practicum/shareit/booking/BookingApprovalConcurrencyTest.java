@@ -0,0 +1,160 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.ConcurrentUpdateException;
+import ru.practicum.shareit.exceptions.ItemIsNotAvailable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class BookingApprovalConcurrencyTest {
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    UserService userService;
+    @Autowired
+    TransactionOperations transactionOperations;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    UserDto owner;
+    UserDto booker;
+    BookingDto first;
+    static final Long SECOND_BOOKING_ID = 1000L;
+
+    @BeforeEach
+    void start() {
+        owner = userService.addUser(UserDto.builder().name("owner").email("owner@user.com").build());
+        booker = userService.addUser(UserDto.builder().name("booker").email("booker@user.com").build());
+        ItemDto itemDto = itemService.addItem(owner.getId(),
+                ItemDto.builder().name("item").description("desc").available(true).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        first = bookingService.addBooking(booker.getId(),
+                new BookingRequest(itemDto.getId(), start, start.plusHours(2)));
+        jdbcTemplate.update("insert into bookings (id, start_date, end_date, item_id, booker_id, owner_id, status, " +
+                "phase) values (?, ?, ?, ?, ?, ?, 'WAITING', 'FUTURE')", SECOND_BOOKING_ID, start.plusHours(1),
+                start.plusHours(3), itemDto.getId(), booker.getId(), owner.getId());
+    }
+
+    @Test
+    void setBookingStatus_whenBookingIsApproved_thenOnlyBookingVersionIsIncremented() {
+        bookingService.setBookingStatus(owner.getId(), first.getId(), true);
+
+        assertThat(version("bookings", first.getId()), is(1L));
+        assertThat(version("items", first.getItem().getId()), is(0L));
+    }
+
+    @Test
+    void updateItem_whenBookingIsApprovedConcurrently_thenBothSucceed() {
+        transactionOperations.executeWithoutResult(status -> {
+            bookingService.setBookingStatus(owner.getId(), first.getId(), true);
+            CompletableFuture.runAsync(() -> itemService.updateItem(owner.getId(), first.getItem().getId(),
+                    ItemDto.builder().name("renamed").build())).join();
+        });
+
+        assertThat(bookingService.getBookingById(owner.getId(), first.getId()).getStatus(), is(BookingStatus.APPROVED));
+        assertThat(itemService.getItemById(owner.getId(), first.getItem().getId()).getName(), is("renamed"));
+    }
+
+    @Test
+    void setBookingStatus_whenOverlappingBookingIsAlreadyApproved_thenReturnItemIsNotAvailable() {
+        jdbcTemplate.update("update bookings set status = 'APPROVED' where id = ?", SECOND_BOOKING_ID);
+
+        assertThrows(ItemIsNotAvailable.class,
+                () -> bookingService.setBookingStatus(owner.getId(), first.getId(), true));
+        assertThat(bookingService.getBookingById(owner.getId(), first.getId()).getStatus(), is(BookingStatus.WAITING));
+    }
+
+    @Test
+    void setBookingStatus_whenStatusIsChangedAfterRead_thenReturnConcurrentUpdateException() {
+        assertThrows(ConcurrentUpdateException.class, () -> transactionOperations.executeWithoutResult(status -> {
+            bookingService.getBookingById(owner.getId(), first.getId());
+            CompletableFuture.runAsync(() -> jdbcTemplate.update("update bookings set status = 'REJECTED', " +
+                    "version = version + 1 where id = ?", first.getId())).join();
+            bookingService.setBookingStatus(owner.getId(), first.getId(), true);
+        }));
+
+        assertThat(bookingService.getBookingById(owner.getId(), first.getId()).getStatus(),
+                is(BookingStatus.REJECTED));
+    }
+
+    @Test
+    void addBooking_whenBookingIsAdded_thenItemBookingVersionIsIncremented() {
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+
+        bookingService.addBooking(booker.getId(),
+                new BookingRequest(first.getItem().getId(), start, start.plusHours(1)));
+
+        assertThat(bookingVersion(first.getItem().getId()), is(2L));
+    }
+
+    @Test
+    void addBooking_whenOverlappingBookingsAreAddedConcurrently_thenOnlyOneIsSaved() {
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        BookingRequest request = new BookingRequest(first.getItem().getId(), start, start.plusHours(1));
+
+        CompletableFuture<?>[] futures = IntStream.range(0, 4)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> bookingService.addBooking(booker.getId(), request)))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from bookings where item_id = ? and start_date > ?",
+                Long.class, first.getItem().getId(), start.minusDays(1)), is(1L));
+    }
+
+    @Test
+    void setBookingStatus_whenBookingIsApproved_thenItemBookingVersionIsIncremented() {
+        bookingService.setBookingStatus(owner.getId(), first.getId(), true);
+
+        assertThat(bookingVersion(first.getItem().getId()), is(2L));
+    }
+
+    @Test
+    void setBookingStatus_whenOverlappingBookingsAreApprovedConcurrently_thenOnlyOneIsApproved() {
+        CompletableFuture<?>[] futures = Stream.of(first.getId(), SECOND_BOOKING_ID)
+                .map(bookingId -> CompletableFuture.runAsync(() ->
+                        bookingService.setBookingStatus(owner.getId(), bookingId, true)))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from bookings where status = 'APPROVED'",
+                Long.class), is(1L));
+    }
+
+    private Long version(String table, Long id) {
+        return jdbcTemplate.queryForObject("select version from " + table + " where id = ?", Long.class, id);
+    }
+
+    private Long bookingVersion(Long itemId) {
+        return jdbcTemplate.queryForObject("select booking_version from item_booking_summaries where item_id = ?",
+                Long.class, itemId);
+    }
+}
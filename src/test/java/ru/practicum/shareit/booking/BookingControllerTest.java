@@ -17,21 +17,31 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -96,6 +106,90 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(bookingDto.getStatus().toString())));
     }
 
+    @SneakyThrows
+    @Test
+    void addBookingsTest() {
+        when(bookingService.addBookings(anyLong(), any())).thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(bookingRequest))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+
+        verify(bookingService).addBookings(1L, List.of(bookingRequest));
+    }
+
+    @SneakyThrows
+    @Test
+    void addBookings_whenListIsEmpty_thenReturnBadRequest() {
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @SneakyThrows
+    @Test
+    void addBookings_whenListIsTooLong_thenReturnBadRequest() {
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                Collections.nCopies(101, bookingRequest))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
+    @SneakyThrows
+    @Test
+    void addBookings_whenItemIdIsMissing_thenReturnBadRequest() {
+        BookingRequest withoutItem = new BookingRequest(null, bookingRequest.getStart(), bookingRequest.getEnd());
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(bookingRequest, withoutItem))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
+    @SneakyThrows
+    @Test
+    void setBookingsStatus_whenListIsTooLong_thenReturnBadRequest() {
+        mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                LongStream.rangeClosed(1, 101).boxed()
+                                        .collect(Collectors.toList()))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
+    @SneakyThrows
+    @Test
+    void setBookingsStatusTest() {
+        when(bookingService.setBookingsStatus(anyLong(), any(), anyBoolean())).thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", "false")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+
+        verify(bookingService).setBookingsStatus(1L, List.of(1L), false);
+    }
+
     @SneakyThrows
     @Test
     void getBookingByIdTest() {
@@ -107,8 +201,8 @@ class BookingControllerTest {
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(bookingDto.getId()), Long.class))
-                .andExpect(jsonPath("$.start", is(bookingDto.getStart().toString())))
-                .andExpect(jsonPath("$.end", is(bookingDto.getEnd().toString())))
+                .andExpect(jsonPath("$.start", is(bookingDto.getStart().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))))
+                .andExpect(jsonPath("$.end", is(bookingDto.getEnd().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))))
                 .andExpect(jsonPath("$.item.id", is(bookingDto.getItem().getId()), Long.class))
                 .andExpect(jsonPath("$.booker.id", is(bookingDto.getBooker().getId()), Long.class))
                 .andExpect(jsonPath("$.status", is(bookingDto.getStatus().toString())));
@@ -130,13 +224,54 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class))
-                .andExpect(jsonPath("$[0].start", is(bookingDto.getStart().toString())))
-                .andExpect(jsonPath("$[0].end", is(bookingDto.getEnd().toString())))
+                .andExpect(jsonPath("$[0].start", is(bookingDto.getStart().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))))
+                .andExpect(jsonPath("$[0].end", is(bookingDto.getEnd().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))))
                 .andExpect(jsonPath("$[0].item.id", is(bookingDto.getItem().getId()), Long.class))
                 .andExpect(jsonPath("$[0].booker.id", is(bookingDto.getBooker().getId()), Long.class))
                 .andExpect(jsonPath("$[0].status", is(bookingDto.getStatus().toString())));
     }
 
+    @SneakyThrows
+    @Test
+    void getAllUserBookingsTest_whenCursorIsGiven_thenSeekAfterCursor() {
+        when(bookingService.getAllBookerBookings(1L, "ALL", end, 5L, 10))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("state", "ALL")
+                        .param("cursorStart", end.toString())
+                        .param("cursorId", "5")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+
+        verify(bookingService).getAllBookerBookings(1L, "ALL", end, 5L, 10);
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllUserBookingsTest_whenOnlyCursorStartIsGiven_thenReturnBadRequest() {
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("cursorStart", end.toString()))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllUserItemsBookingTest_whenOnlyCursorIdIsGiven_thenReturnBadRequest() {
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("cursorId", "5"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
     @SneakyThrows
     @Test
     void getAllUserItemsBookingTest() {
@@ -151,10 +286,55 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class))
-                .andExpect(jsonPath("$[0].start", is(bookingDto.getStart().toString())))
-                .andExpect(jsonPath("$[0].end", is(bookingDto.getEnd().toString())))
+                .andExpect(jsonPath("$[0].start", is(bookingDto.getStart().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))))
+                .andExpect(jsonPath("$[0].end", is(bookingDto.getEnd().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))))
                 .andExpect(jsonPath("$[0].item.id", is(bookingDto.getItem().getId()), Long.class))
                 .andExpect(jsonPath("$[0].booker.id", is(bookingDto.getBooker().getId()), Long.class))
                 .andExpect(jsonPath("$[0].status", is(bookingDto.getStatus().toString())));
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void exportBookerBookingsTest() {
+        BookingDto otherBookingDto = new BookingDto(2L, start, end, itemDto, userDto, BookingStatus.APPROVED);
+        doAnswer(invocation -> {
+            Consumer<BookingDto> consumer = invocation.getArgument(1);
+            consumer.accept(bookingDto);
+            consumer.accept(otherBookingDto);
+            return null;
+        }).when(bookingService).exportBookerBookings(eq(1L), any());
+
+        mockMvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(bookingDto) + "\n"
+                        + objectMapper.writeValueAsString(otherBookingDto) + "\n"));
+    }
+
+    @SneakyThrows
+    @Test
+    void exportBookerItemsBookingsTest() {
+        doAnswer(invocation -> {
+            Consumer<BookingDto> consumer = invocation.getArgument(1);
+            consumer.accept(bookingDto);
+            return null;
+        }).when(bookingService).exportBookerItemsBookings(eq(2L), any());
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(bookingDto) + "\n"));
+    }
+
+    @SneakyThrows
+    @Test
+    void exportBookerBookings_whenUserNotFound_thenReturnNotFound() {
+        doThrow(new EntityNotFoundException("No user with id 0"))
+                .when(bookingService).exportBookerBookings(eq(0L), any());
+
+        mockMvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", "0"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.booking.service.BookingEventDispatcher;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class BookingEventDispatcherTest {
+    @Autowired
+    BookingEventDispatcher bookingEventDispatcher;
+    @Autowired
+    BookingEventRepository bookingEventRepository;
+    @Autowired
+    ItemBookingSummaryRepository itemBookingSummaryRepository;
+    @SpyBean
+    ItemBookingSummaryService itemBookingSummaryService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    UserService userService;
+    UserDto owner;
+    ItemDto itemDto;
+    BookingDto bookingDto;
+
+    @BeforeEach
+    void start() {
+        owner = userService.addUser(UserDto.builder().name("owner").email("owner@user.com").build());
+        UserDto booker = userService.addUser(UserDto.builder().name("booker").email("booker@user.com").build());
+        itemDto = itemService.addItem(owner.getId(),
+                ItemDto.builder().name("item").description("desc").available(true).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingDto = bookingService.addBooking(booker.getId(),
+                new BookingRequest(itemDto.getId(), start, start.plusHours(1)));
+    }
+
+    @Test
+    void setBookingStatus_whenTransactionCommits_thenEventsAreDispatchedAsynchronously() throws InterruptedException {
+        bookingService.setBookingStatus(owner.getId(), bookingDto.getId(), true);
+
+        List<BookingEvent> events = awaitProcessedEvents(2);
+        assertThat(events.stream().map(BookingEvent::getType).collect(Collectors.toList()),
+                contains(BookingEventType.CREATED, BookingEventType.APPROVED));
+        assertThat(events.stream().map(BookingEvent::getProcessedAt).collect(Collectors.toList()),
+                everyItem(notNullValue()));
+        assertThat(itemBookingSummaryRepository.findById(itemDto.getId()).orElseThrow().getNextBookingId(),
+                is(bookingDto.getId()));
+    }
+
+    @Test
+    void dispatch_whenEventIsAlreadyProcessed_thenSkipIt() throws InterruptedException {
+        List<BookingEvent> events = awaitProcessedEvents(1);
+
+        assertThat(bookingEventDispatcher.dispatch(events.get(0).getId()), is(false));
+        assertThat(bookingEventDispatcher.dispatchPending(), is(0));
+    }
+
+    @Test
+    void dispatchPending_whenEventWasNotDispatched_thenDispatchIt() throws InterruptedException {
+        awaitProcessedEvents(1);
+        bookingEventRepository.findAll().forEach(event -> {
+            event.setProcessedAt(null);
+            bookingEventRepository.save(event);
+        });
+
+        assertThat(bookingEventDispatcher.dispatchPending(), is(1));
+        assertThat(bookingEventRepository.findAll().get(0).getProcessedAt(), is(notNullValue()));
+    }
+
+    @Test
+    void dispatchPending_whenHandlerKeepsFailing_thenStopAfterMaxAttempts() throws InterruptedException {
+        awaitProcessedEvents(1);
+        doThrow(new IllegalStateException("summary is unavailable"))
+                .when(itemBookingSummaryService).refreshSummaries(any());
+        bookingService.setBookingStatus(owner.getId(), bookingDto.getId(), true);
+        BookingEvent approved = awaitAttempts(1);
+
+        for (int attempt = 2; attempt <= 5; attempt++) {
+            assertThat(bookingEventDispatcher.dispatchPending(), is(0));
+        }
+
+        BookingEvent failed = bookingEventRepository.findById(approved.getId()).orElseThrow();
+        assertThat(failed.getAttempts(), is(5));
+        assertThat(failed.getFailedAt(), is(notNullValue()));
+        assertThat(failed.getProcessedAt(), is(nullValue()));
+        assertThat(bookingEventDispatcher.dispatchPending(), is(0));
+        verify(itemBookingSummaryService, times(5)).refreshSummaries(any());
+    }
+
+    private BookingEvent awaitAttempts(int attempts) throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            List<BookingEvent> failed = bookingEventRepository.findAll().stream()
+                    .filter(event -> event.getAttempts() == attempts)
+                    .collect(Collectors.toList());
+            if (!failed.isEmpty()) {
+                return failed.get(0);
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        throw new AssertionError("Booking event was not attempted");
+    }
+
+    private List<BookingEvent> awaitProcessedEvents(int count) throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            List<BookingEvent> events = bookingEventRepository.findAll();
+            if (events.size() == count && events.stream().allMatch(event -> event.getProcessedAt() != null)) {
+                events.sort((first, second) -> first.getId().compareTo(second.getId()));
+                return events;
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        throw new AssertionError("Booking events were not dispatched");
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.service.BookingPhaseService;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class BookingPhaseServiceImplTest {
+    @Autowired
+    BookingPhaseService bookingPhaseService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    UserService userService;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    UserDto owner;
+    UserDto booker;
+    ItemDto itemDto;
+    static final Long BOOKING_ID = 1000L;
+
+    @BeforeEach
+    void start() {
+        owner = userService.addUser(UserDto.builder().name("owner").email("owner@user.com").build());
+        booker = userService.addUser(UserDto.builder().name("booker").email("booker@user.com").build());
+        itemDto = itemService.addItem(owner.getId(),
+                ItemDto.builder().name("item").description("desc").available(true).build());
+    }
+
+    @Test
+    void updatePhases_whenBookingHasStarted_thenItBecomesCurrent() {
+        LocalDateTime now = LocalDateTime.now();
+        insertFutureBooking(now.minusHours(1), now.plusDays(1));
+        assertThat(bookingService.getAllBookerBookings(booker.getId(), "FUTURE", 0, 10), is(empty()));
+        assertThat(bookingService.getAllBookerBookings(booker.getId(), "CURRENT", 0, 10).get(0).getId(),
+                is(BOOKING_ID));
+
+        assertThat(bookingPhaseService.updatePhases(), is(1));
+        assertThat(phase(), is("CURRENT"));
+        assertThat(bookingService.getAllBookerBookings(booker.getId(), "CURRENT", 0, 10).get(0).getId(),
+                is(BOOKING_ID));
+        assertThat(bookingPhaseService.updatePhases(), is(0));
+    }
+
+    @Test
+    void updatePhases_whenBookingHasEnded_thenItBecomesPast() {
+        LocalDateTime now = LocalDateTime.now();
+        insertFutureBooking(now.minusDays(2), now.minusDays(1));
+
+        assertThat(bookingPhaseService.updatePhases(), is(1));
+        assertThat(phase(), is("PAST"));
+        assertThat(bookingService.getAllBookerBookings(booker.getId(), "PAST", 0, 10).get(0).getId(),
+                is(BOOKING_ID));
+        assertThat(bookingService.getAllBookerBookings(booker.getId(), "CURRENT", 0, 10), is(empty()));
+    }
+
+    @Test
+    void updatePhases_whenPhaseChanges_thenBookingVersionIsUnchanged() {
+        LocalDateTime now = LocalDateTime.now();
+        insertFutureBooking(now.minusHours(1), now.plusDays(1));
+
+        bookingPhaseService.updatePhases();
+
+        assertThat(jdbcTemplate.queryForObject("select version from bookings where id = ?", Long.class, BOOKING_ID),
+                is(0L));
+    }
+
+    private void insertFutureBooking(LocalDateTime start, LocalDateTime end) {
+        jdbcTemplate.update("insert into bookings (id, start_date, end_date, item_id, booker_id, owner_id, status, " +
+                "phase, version) values (?, ?, ?, ?, ?, ?, 'APPROVED', 'FUTURE', 0)", BOOKING_ID, start, end,
+                itemDto.getId(), booker.getId(), owner.getId());
+    }
+
+    private String phase() {
+        return jdbcTemplate.queryForObject("select phase from bookings where id = ?", String.class, BOOKING_ID);
+    }
+}
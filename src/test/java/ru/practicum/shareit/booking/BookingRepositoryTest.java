@@ -2,16 +2,20 @@ package ru.practicum.shareit.booking;
 
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
-import ru.practicum.shareit.booking.dto.BookingForItem;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
@@ -19,12 +23,15 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 @FieldDefaults(level = AccessLevel.PRIVATE)
 class BookingRepositoryTest {
@@ -38,14 +45,21 @@ class BookingRepositoryTest {
     @Autowired
     ItemRepository itemRepository;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    TestEntityManager entityManager;
+
     User user;
     User owner;
     Item item;
     Booking bookingCurrent;
     Booking bookingFuture;
     Booking bookingPast;
-    LocalDateTime currentTime = LocalDateTime.now();
+    LocalDateTime currentTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     Pageable page = PageRequest.of(0, 10);
+    static final List<BookingPhase> NOT_ENDED_PHASES = List.of(BookingPhase.FUTURE, BookingPhase.CURRENT);
 
     @BeforeEach
     void start() {
@@ -72,19 +86,20 @@ class BookingRepositoryTest {
 
         Booking newBookingPast = Booking.builder().start(pastTime).end(pastTime.plusHours(1)).item(item2).booker(user).status(BookingStatus.WAITING).build();
         bookingPast = bookingRepository.save(newBookingPast);
+        entityManager.flush();
     }
 
     @Test
     void findAllByBookerIdOrderByStartDesc() {
-        Page<Booking> bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(user.getId(), page);
+        Slice<BookingDto> bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(user.getId(), page);
 
         assertTrue(bookings.hasContent());
         assertEquals(3, bookings.getContent().size());
     }
 
     @Test
-    void findAllByBookerIdAndEndIsBeforeOrderByStartDesc() {
-        Page<Booking> bookings = bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(user.getId(), currentTime, page);
+    void findPastByBookerId() {
+        Slice<BookingDto> bookings = bookingRepository.findPastByBookerId(user.getId(), currentTime, page);
 
         assertTrue(bookings.hasContent());
         assertEquals(1, bookings.getContent().size());
@@ -92,8 +107,9 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByBookerIdAndStartIsAfterOrderByStartDesc() {
-        Page<Booking> bookings = bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(user.getId(), currentTime, page);
+    void findFutureByBookerId() {
+        Slice<BookingDto> bookings = bookingRepository.findFutureByBookerId(user.getId(), BookingPhase.FUTURE,
+                currentTime, page);
 
         assertTrue(bookings.hasContent());
         assertEquals(1, bookings.getContent().size());
@@ -101,8 +117,9 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByBookerIdCurrentBookings() {
-        Page<Booking> bookings = bookingRepository.findAllByBookerIdCurrentBookings(user.getId(), currentTime, page);
+    void findCurrentByBookerId() {
+        Slice<BookingDto> bookings = bookingRepository.findCurrentByBookerId(user.getId(), NOT_ENDED_PHASES,
+                currentTime, page);
 
         assertTrue(bookings.hasContent());
         assertEquals(1, bookings.getContent().size());
@@ -110,8 +127,8 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findALLByBookerIdAndStatusOrderByStartDesc() {
-        Page<Booking> bookings = bookingRepository.findALLByBookerIdAndStatusOrderByStartDesc(user.getId(), BookingStatus.APPROVED, page);
+    void findAllByBookerIdAndStatusOrderByStartDesc() {
+        Slice<BookingDto> bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(user.getId(), BookingStatus.APPROVED, page);
 
         assertFalse(bookings.hasContent());
         assertEquals(0, bookings.getContent().size());
@@ -119,31 +136,33 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByOwnerIdOrderByStartDesc() {
-        Page<Booking> bookings = bookingRepository.findAllByOwnerIdOrderByStartDesc(user.getId(), page);
+        Slice<BookingDto> bookings = bookingRepository.findAllByOwnerIdOrderByStartDesc(user.getId(), page);
 
         assertTrue(bookings.hasContent());
         assertEquals(1, bookings.getContent().size());
     }
 
     @Test
-    void findAllByOwnerIdAndEndIsBeforeOrderByStartDesc() {
-        Page<Booking> bookings = bookingRepository.findAllByOwnerIdAndEndIsBeforeOrderByStartDesc(user.getId(), currentTime, page);
+    void findPastByOwnerId() {
+        Slice<BookingDto> bookings = bookingRepository.findPastByOwnerId(user.getId(), currentTime, page);
 
         assertTrue(bookings.hasContent());
         assertEquals(1, bookings.getContent().size());
     }
 
     @Test
-    void findAllByOwnerIdAndStartAfterOrderByStartDesc() {
-        Page<Booking> bookings = bookingRepository.findAllByOwnerIdAndStartAfterOrderByStartDesc(user.getId(), currentTime, page);
+    void findFutureByOwnerId() {
+        Slice<BookingDto> bookings = bookingRepository.findFutureByOwnerId(user.getId(), BookingPhase.FUTURE,
+                currentTime, page);
 
         assertFalse(bookings.hasContent());
         assertEquals(0, bookings.getContent().size());
     }
 
     @Test
-    void findAllByOwnerIdCurrentBookings() {
-        Page<Booking> bookings = bookingRepository.findAllByOwnerIdCurrentBookings(user.getId(), currentTime, page);
+    void findCurrentByOwnerId() {
+        Slice<BookingDto> bookings = bookingRepository.findCurrentByOwnerId(user.getId(), NOT_ENDED_PHASES,
+                currentTime, page);
 
         assertFalse(bookings.hasContent());
         assertEquals(0, bookings.getContent().size());
@@ -151,32 +170,224 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByOwnerIdAndStatusOrderByStartDesc() {
-        Page<Booking> bookings = bookingRepository.findAllByOwnerIdAndStatusOrderByStartDesc(user.getId(), BookingStatus.WAITING, page);
+        Slice<BookingDto> bookings = bookingRepository.findAllByOwnerIdAndStatusOrderByStartDesc(user.getId(), BookingStatus.WAITING, page);
 
         assertTrue(bookings.hasContent());
         assertEquals(1, bookings.getContent().size());
     }
 
     @Test
-    void findNextBookingForItem() {
+    void findAllByBookerIdOrderByStartDesc_whenPageIsFull_thenRunSingleStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Slice<BookingDto> bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(user.getId(), PageRequest.of(0, 2));
+
+        assertEquals(2, bookings.getContent().size());
+        assertTrue(bookings.hasNext());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllByOwnerIdOrderByStartDesc_whenPageIsFull_thenRunSingleStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Slice<BookingDto> bookings = bookingRepository.findAllByOwnerIdOrderByStartDesc(owner.getId(), PageRequest.of(0, 1));
+
+        assertEquals(1, bookings.getContent().size());
+        assertTrue(bookings.hasNext());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllByOwnerIdOrderByStartDesc_whenEntitiesAreNotLoaded_thenSelectItemAndBookerInSameStatement() {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Slice<BookingDto> bookings = bookingRepository.findAllByOwnerIdOrderByStartDesc(owner.getId(), page);
+
+        assertEquals(2, bookings.getContent().size());
+        assertEquals(item.getName(), bookings.getContent().get(0).getItem().getName());
+        assertEquals(user.getEmail(), bookings.getContent().get(0).getBooker().getEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findAllByBookerIdBeforeCursor() {
+        List<BookingDto> bookings = bookingRepository.findAllByBookerIdBeforeCursor(user.getId(),
+                bookingFuture.getStart(), bookingFuture.getId(), page);
+
+        assertEquals(2, bookings.size());
+        assertEquals(bookingCurrent.getId(), bookings.get(0).getId());
+        assertEquals(bookingPast.getId(), bookings.get(1).getId());
+    }
+
+    @Test
+    void findAllByBookerIdBeforeCursor_whenStartIsEqual_thenSeekById() {
+        Booking sameStart = bookingRepository.save(Booking.builder().start(bookingCurrent.getStart())
+                .end(bookingCurrent.getEnd()).item(item).booker(user).status(BookingStatus.WAITING).build());
+
+        List<BookingDto> bookings = bookingRepository.findAllByBookerIdBeforeCursor(user.getId(),
+                sameStart.getStart(), sameStart.getId(), PageRequest.of(0, 1));
+
+        assertEquals(1, bookings.size());
+        assertEquals(bookingCurrent.getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void findAllByBookerIdOrderByStartDesc_whenStartIsEqual_thenContinueWithCursor() {
+        Booking sameStart = bookingRepository.save(Booking.builder().start(bookingCurrent.getStart())
+                .end(bookingCurrent.getEnd()).item(item).booker(user).status(BookingStatus.WAITING).build());
+
+        List<BookingDto> firstPage = bookingRepository.findAllByBookerIdOrderByStartDesc(user.getId(),
+                PageRequest.of(0, 2)).getContent();
+        BookingDto last = firstPage.get(1);
+        List<BookingDto> nextPage = bookingRepository.findAllByBookerIdBeforeCursor(user.getId(),
+                last.getStart(), last.getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(bookingFuture.getId(), sameStart.getId()),
+                firstPage.stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(bookingCurrent.getId(), bookingPast.getId()),
+                nextPage.stream().map(BookingDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findByBookerIdAndStatusBeforeCursor() {
+        List<BookingDto> bookings = bookingRepository.findByBookerIdAndStatusBeforeCursor(user.getId(),
+                BookingStatus.WAITING, bookingCurrent.getStart(), bookingCurrent.getId(), page);
+
+        assertEquals(1, bookings.size());
+        assertEquals(bookingPast.getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void findFutureByOwnerIdBeforeCursor() {
+        List<BookingDto> bookings = bookingRepository.findFutureByOwnerIdBeforeCursor(owner.getId(), BookingPhase.FUTURE,
+                currentTime, bookingFuture.getStart(), bookingFuture.getId() + 1, page);
+
+        assertEquals(1, bookings.size());
+        assertEquals(bookingFuture.getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void findCurrentByBookerId_whenStoredPhaseIsBehind_thenCompareDates() {
+        bookingRepository.updatePhaseWhenStartIsNotAfter(BookingPhase.FUTURE, BookingPhase.CURRENT, currentTime);
+        Booking ended = bookingRepository.save(Booking.builder().start(currentTime.minusHours(2))
+                .end(currentTime.minusHours(1)).item(item).booker(user).status(BookingStatus.WAITING)
+                .phase(BookingPhase.CURRENT).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BookingDto> current = bookingRepository.findCurrentByBookerId(user.getId(), NOT_ENDED_PHASES,
+                currentTime, page).getContent();
+        List<BookingDto> past = bookingRepository.findPastByBookerIdBeforeCursor(user.getId(), currentTime,
+                currentTime, Long.MAX_VALUE, page);
+        List<BookingDto> future = bookingRepository.findFutureByBookerId(user.getId(), BookingPhase.FUTURE,
+                currentTime, page).getContent();
+
+        assertEquals(List.of(bookingCurrent.getId()),
+                current.stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(ended.getId(), bookingPast.getId()),
+                past.stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(bookingFuture.getId()),
+                future.stream().map(BookingDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void save_whenBookingIsInserted_thenCopyOwnerFromItem() {
+        assertEquals(owner.getId(), bookingCurrent.getOwnerId());
+        assertEquals(user.getId(), bookingPast.getOwnerId());
+        assertThrows(IllegalStateException.class, () -> item.setOwnerId(user.getId()));
+    }
+
+    @Test
+    void save_whenPhaseIsNotSet_thenDeriveItFromDates() {
+        assertEquals(BookingPhase.CURRENT, bookingCurrent.getPhase());
+        assertEquals(BookingPhase.FUTURE, bookingFuture.getPhase());
+        assertEquals(BookingPhase.PAST, bookingPast.getPhase());
+    }
+
+    @Test
+    void updatePhaseWhenEndIsBefore() {
+        int updated = bookingRepository.updatePhaseWhenEndIsBefore(BookingPhase.PAST,
+                List.of(BookingPhase.FUTURE, BookingPhase.CURRENT), currentTime.plusHours(2));
+        entityManager.clear();
+
+        assertEquals(1, updated);
+        assertEquals(BookingPhase.PAST, bookingRepository.findById(bookingCurrent.getId()).orElseThrow().getPhase());
+        assertEquals(BookingPhase.FUTURE, bookingRepository.findById(bookingFuture.getId()).orElseThrow().getPhase());
+    }
+
+    @Test
+    void updatePhaseWhenStartIsNotAfter() {
+        int updated = bookingRepository.updatePhaseWhenStartIsNotAfter(BookingPhase.CURRENT, BookingPhase.FUTURE,
+                bookingFuture.getStart());
+        entityManager.clear();
+
+        assertEquals(1, updated);
+        Booking booking = bookingRepository.findById(bookingFuture.getId()).orElseThrow();
+        assertEquals(BookingPhase.CURRENT, booking.getPhase());
+        assertEquals(bookingFuture.getVersion(), booking.getVersion());
+    }
+
+    @Test
+    void findAllByOwnerIdBeforeCursor() {
+        List<BookingDto> bookings = bookingRepository.findAllByOwnerIdBeforeCursor(owner.getId(),
+                bookingFuture.getStart(), bookingFuture.getId(), page);
+
+        assertEquals(1, bookings.size());
+        assertEquals(bookingCurrent.getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void findNextBookingsForItems() {
         bookingCurrent.setStatus(BookingStatus.APPROVED);
         bookingFuture.setStatus(BookingStatus.APPROVED);
+        bookingPast.setStatus(BookingStatus.APPROVED);
 
-        List<BookingForItem> bookings = bookingRepository.findNextBookingForItem(item.getId(), currentTime, BookingStatus.APPROVED);
+        List<Booking> bookings = bookingRepository.findNextBookingsForItems(
+                List.of(item.getId(), bookingPast.getItem().getId()), currentTime, BookingStatus.APPROVED);
 
-        assertFalse(bookings.isEmpty());
         assertEquals(1, bookings.size());
-        assertEquals(2, bookings.get(0).getId());
+        assertEquals(bookingFuture.getId(), bookings.get(0).getId());
     }
 
     @Test
-    void findLastBookingForItem() {
+    void findLastBookingsForItems() {
         bookingCurrent.setStatus(BookingStatus.APPROVED);
         bookingFuture.setStatus(BookingStatus.APPROVED);
+        bookingPast.setStatus(BookingStatus.APPROVED);
+
+        List<Booking> bookings = bookingRepository.findLastBookingsForItems(
+                List.of(item.getId(), bookingPast.getItem().getId()), currentTime, BookingStatus.APPROVED);
+
+        assertEquals(1, bookings.size());
+        assertEquals(bookingPast.getId(), bookings.get(0).getId());
+    }
 
-        List<BookingForItem> bookings = bookingRepository.findLastBookingForItem(item.getId(), currentTime, BookingStatus.APPROVED);
+    @Test
+    void findAllOverlapping() {
+        List<Booking> bookings = bookingRepository.findAllOverlapping(
+                List.of(item.getId(), bookingPast.getItem().getId()), List.of(BookingStatus.WAITING),
+                currentTime.plusDays(11), currentTime.plusMinutes(30));
+
+        assertEquals(2, bookings.size());
+        assertTrue(bookings.stream().noneMatch(booking -> booking.getId().equals(bookingPast.getId())));
+    }
 
-        assertTrue(bookings.isEmpty());
+    @Test
+    void existsByItemIdAndStatusInAndStartBeforeAndEndAfter() {
+        List<BookingStatus> statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        assertTrue(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                item.getId(), statuses, currentTime.plusMinutes(90), currentTime.plusMinutes(30)));
+        assertFalse(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                item.getId(), statuses, currentTime.plusHours(3), currentTime.plusHours(1)));
+        assertFalse(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                item.getId(), List.of(BookingStatus.APPROVED), currentTime.plusMinutes(90), currentTime.plusMinutes(30)));
     }
 
     @Test
@@ -188,4 +399,19 @@ class BookingRepositoryTest {
         assertEquals(1, bookings.get(0).getId());
         assertEquals(2, bookings.get(1).getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void save_whenBookingIsPersisted_thenOwnerIdIsTakenFromItem() {
+        assertEquals(owner.getId(), bookingCurrent.getOwnerId());
+        assertEquals(owner.getId(), bookingFuture.getOwnerId());
+        assertEquals(user.getId(), bookingPast.getOwnerId());
+    }
+
+    @Test
+    void findAllByOwnerIdOrderByStartDesc_whenOwnerHasOtherItem() {
+        Slice<BookingDto> bookings = bookingRepository.findAllByOwnerIdOrderByStartDesc(user.getId(), page);
+
+        assertEquals(1, bookings.getContent().size());
+        assertEquals(bookingPast.getId(), bookings.getContent().get(0).getId());
+    }
+}
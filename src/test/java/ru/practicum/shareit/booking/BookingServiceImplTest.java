@@ -5,36 +5,61 @@ import lombok.experimental.FieldDefaults;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.exceptions.ConcurrentUpdateException;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.exceptions.ItemIsNotAvailable;
 import ru.practicum.shareit.exceptions.OwnerException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.ItemBookingVersion;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -49,6 +74,24 @@ public class BookingServiceImplTest {
     @Mock
     ItemRepository itemRepository;
 
+    @Mock
+    ItemBookingSummaryRepository summaryRepository;
+
+    @Mock
+    BookingEventRepository bookingEventRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    TransactionOperations transactionOperations;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Captor
+    ArgumentCaptor<BookingEvent> eventCaptor;
+
     @InjectMocks
     BookingServiceImpl bookingService;
     User user;
@@ -57,7 +100,7 @@ public class BookingServiceImplTest {
     Booking bookingCurrent;
     Booking bookingFuture;
     Booking bookingPast;
-    Page<Booking> page;
+    Slice<BookingDto> page;
 
     @BeforeEach
     void start() {
@@ -68,15 +111,24 @@ public class BookingServiceImplTest {
         owner = setUser(2L, "owner", "owner@user.com");
         lenient().when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         lenient().when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        item = new Item(1L, "item", "desc", true, 2L, 1L);
-        bookingCurrent = new Booking(1L, currentTime, currentTime.plusHours(1), item, user, BookingStatus.APPROVED);
-        bookingFuture = new Booking(2L, futureTime, futureTime.plusHours(1), item, user, BookingStatus.APPROVED);
-        bookingPast = new Booking(3L, pastTime, pastTime.plusHours(1), item, user, BookingStatus.APPROVED);
+        lenient().when(transactionOperations.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        item = new Item(1L, "item", "desc", true, 2L, 1L, 0L);
+        lenient().when(summaryRepository.findBookingVersions(any()))
+                .thenReturn(List.of(new ItemBookingVersion(item.getId(), 0L)));
+        lenient().when(summaryRepository.incrementBookingVersion(anyLong(), anyLong())).thenReturn(1);
+        bookingCurrent = new Booking(1L, currentTime, currentTime.plusHours(1), item, user, 2L, BookingStatus.APPROVED,
+                BookingPhase.CURRENT, 0L);
+        bookingFuture = new Booking(2L, futureTime, futureTime.plusHours(1), item, user, 2L, BookingStatus.APPROVED,
+                BookingPhase.FUTURE, 0L);
+        bookingPast = new Booking(3L, pastTime, pastTime.plusHours(1), item, user, 2L, BookingStatus.APPROVED,
+                BookingPhase.PAST, 0L);
     }
 
     @Test
     void getAllBookerBookings_WhenStateIsAll_thenReturnListOfAllBookerBookings() {
-        page = new PageImpl<>(List.of(bookingCurrent, bookingFuture, bookingPast));
+        page = new SliceImpl<>(List.of(BookingMapper.toBookingDto(bookingCurrent),
+                BookingMapper.toBookingDto(bookingFuture), BookingMapper.toBookingDto(bookingPast)));
         when(bookingRepository.findAllByBookerIdOrderByStartDesc(anyLong(), any())).thenReturn(page);
 
         List<BookingDto> bookings = bookingService.getAllBookerBookings(1L, "ALL", 0, 10);
@@ -86,8 +138,8 @@ public class BookingServiceImplTest {
 
     @Test
     void getAllBookerBookings_WhenStateIsPast_thenReturnListOfBookerPastBookings() {
-        page = new PageImpl<>(List.of(bookingPast));
-        when(bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(anyLong(), any(), any())).thenReturn(page);
+        page = new SliceImpl<>(List.of(BookingMapper.toBookingDto(bookingPast)));
+        when(bookingRepository.findPastByBookerId(anyLong(), any(), any())).thenReturn(page);
 
         List<BookingDto> bookings = bookingService.getAllBookerBookings(1L, "PAST", 0, 10);
 
@@ -97,8 +149,8 @@ public class BookingServiceImplTest {
 
     @Test
     void getAllBookerBookings_WhenStateIsFuture_thenReturnListOfBookerFutureBookings() {
-        page = new PageImpl<>(List.of(bookingFuture));
-        when(bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(anyLong(), any(), any())).thenReturn(page);
+        page = new SliceImpl<>(List.of(BookingMapper.toBookingDto(bookingFuture)));
+        when(bookingRepository.findFutureByBookerId(anyLong(), eq(BookingPhase.FUTURE), any(), any())).thenReturn(page);
 
         List<BookingDto> bookings = bookingService.getAllBookerBookings(1L, "FUTURE", 0, 10);
 
@@ -108,8 +160,9 @@ public class BookingServiceImplTest {
 
     @Test
     void getAllBookerBookings_WhenStateIsCurrent_thenReturnListOfBookerCurrentBookings() {
-        page = new PageImpl<>(List.of(bookingCurrent));
-        when(bookingRepository.findAllByBookerIdCurrentBookings(anyLong(), any(), any())).thenReturn(page);
+        page = new SliceImpl<>(List.of(BookingMapper.toBookingDto(bookingCurrent)));
+        when(bookingRepository.findCurrentByBookerId(anyLong(),
+                eq(List.of(BookingPhase.FUTURE, BookingPhase.CURRENT)), any(), any())).thenReturn(page);
 
         List<BookingDto> bookings = bookingService.getAllBookerBookings(1L, "CURRENT", 0, 10);
 
@@ -119,8 +172,8 @@ public class BookingServiceImplTest {
 
     @Test
     void getAllBookerBookings_WhenStateIsWaiting_thenReturnListOfBookerWaitingBookings() {
-        page = new PageImpl<>(List.of());
-        when(bookingRepository.findALLByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any())).thenReturn(page);
+        page = new SliceImpl<>(List.of());
+        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any())).thenReturn(page);
 
         List<BookingDto> bookings = bookingService.getAllBookerBookings(1L, "WAITING", 0, 10);
 
@@ -136,7 +189,8 @@ public class BookingServiceImplTest {
 
     @Test
     void getAllBookerItemsBooking_WhenStateIsAll_thenReturnListOfAllUserItemBookings() {
-        page = new PageImpl<>(List.of(bookingCurrent, bookingFuture, bookingPast));
+        page = new SliceImpl<>(List.of(BookingMapper.toBookingDto(bookingCurrent),
+                BookingMapper.toBookingDto(bookingFuture), BookingMapper.toBookingDto(bookingPast)));
         when(bookingRepository.findAllByOwnerIdOrderByStartDesc(anyLong(), any())).thenReturn(page);
 
         List<BookingDto> bookings = bookingService.getAllBookerItemsBooking(2L, "ALL", 0, 10);
@@ -146,8 +200,8 @@ public class BookingServiceImplTest {
 
     @Test
     void getAllBookerItemsBooking_WhenStateIsPast_thenReturnListOfUserItemPastBookings() {
-        page = new PageImpl<>(List.of(bookingPast));
-        when(bookingRepository.findAllByOwnerIdAndEndIsBeforeOrderByStartDesc(anyLong(), any(), any())).thenReturn(page);
+        page = new SliceImpl<>(List.of(BookingMapper.toBookingDto(bookingPast)));
+        when(bookingRepository.findPastByOwnerId(anyLong(), any(), any())).thenReturn(page);
 
         List<BookingDto> bookings = bookingService.getAllBookerItemsBooking(2L, "PAST", 0, 10);
 
@@ -157,8 +211,8 @@ public class BookingServiceImplTest {
 
     @Test
     void getAllBookerItemsBooking_WhenStateIsFuture_thenReturnListOfUserItemFutureBookings() {
-        page = new PageImpl<>(List.of(bookingFuture));
-        when(bookingRepository.findAllByOwnerIdAndStartAfterOrderByStartDesc(anyLong(), any(), any())).thenReturn(page);
+        page = new SliceImpl<>(List.of(BookingMapper.toBookingDto(bookingFuture)));
+        when(bookingRepository.findFutureByOwnerId(anyLong(), eq(BookingPhase.FUTURE), any(), any())).thenReturn(page);
 
         List<BookingDto> bookings = bookingService.getAllBookerItemsBooking(2L, "FUTURE", 0, 10);
 
@@ -168,8 +222,9 @@ public class BookingServiceImplTest {
 
     @Test
     void getAllBookerItemsBooking_WhenStateIsCurrent_thenReturnListOfUserItemCurrentBookings() {
-        page = new PageImpl<>(List.of(bookingCurrent));
-        when(bookingRepository.findAllByOwnerIdCurrentBookings(anyLong(), any(), any())).thenReturn(page);
+        page = new SliceImpl<>(List.of(BookingMapper.toBookingDto(bookingCurrent)));
+        when(bookingRepository.findCurrentByOwnerId(anyLong(),
+                eq(List.of(BookingPhase.FUTURE, BookingPhase.CURRENT)), any(), any())).thenReturn(page);
 
         List<BookingDto> bookings = bookingService.getAllBookerItemsBooking(2L, "CURRENT", 0, 10);
 
@@ -179,7 +234,7 @@ public class BookingServiceImplTest {
 
     @Test
     void getAllBookerItemsBooking_WhenStateIsWaiting_thenReturnListOfUserItemWaitingBookings() {
-        page = new PageImpl<>(List.of());
+        page = new SliceImpl<>(List.of());
         when(bookingRepository.findAllByOwnerIdAndStatusOrderByStartDesc(anyLong(), any(), any())).thenReturn(page);
 
         List<BookingDto> bookings = bookingService.getAllBookerItemsBooking(2L, "WAITING", 0, 10);
@@ -194,6 +249,46 @@ public class BookingServiceImplTest {
 
     }
 
+    @Test
+    void getAllBookerBookings_WhenCursorIsGiven_thenReturnBookingsAfterCursor() {
+        when(bookingRepository.findAllByBookerIdBeforeCursor(user.getId(), bookingFuture.getStart(),
+                bookingFuture.getId(), PageRequest.of(0, 10)))
+                .thenReturn(List.of(BookingMapper.toBookingDto(bookingCurrent),
+                        BookingMapper.toBookingDto(bookingPast)));
+
+        List<BookingDto> bookings = bookingService.getAllBookerBookings(user.getId(), "ALL",
+                bookingFuture.getStart(), bookingFuture.getId(), 10);
+
+        assertEquals(2, bookings.size());
+        assertEquals(1, bookings.get(0).getId());
+        assertEquals(3, bookings.get(1).getId());
+    }
+
+    @Test
+    void getAllBookerBookings_WhenCursorIsGivenAndStateIsPast_thenReturnPastBookingsAfterCursor() {
+        when(bookingRepository.findPastByBookerIdBeforeCursor(eq(user.getId()), any(),
+                eq(bookingFuture.getStart()), eq(bookingFuture.getId()), eq(PageRequest.of(0, 10))))
+                .thenReturn(List.of(BookingMapper.toBookingDto(bookingPast)));
+
+        List<BookingDto> bookings = bookingService.getAllBookerBookings(user.getId(), "PAST",
+                bookingFuture.getStart(), bookingFuture.getId(), 10);
+
+        assertEquals(1, bookings.size());
+        assertEquals(3, bookings.get(0).getId());
+    }
+
+    @Test
+    void getAllBookerItemsBooking_WhenCursorIsGivenAndStateIsWaiting_thenReturnWaitingBookingsAfterCursor() {
+        when(bookingRepository.findByOwnerIdAndStatusBeforeCursor(owner.getId(), BookingStatus.WAITING,
+                bookingFuture.getStart(), bookingFuture.getId(), PageRequest.of(0, 10)))
+                .thenReturn(List.of());
+
+        List<BookingDto> bookings = bookingService.getAllBookerItemsBooking(owner.getId(), "WAITING",
+                bookingFuture.getStart(), bookingFuture.getId(), 10);
+
+        assertEquals(0, bookings.size());
+    }
+
     @Test
     void addBooking_whenUserIsNotFound_thenReturnEntityNotFoundException() {
         LocalDateTime newStart = LocalDateTime.now();
@@ -248,26 +343,186 @@ public class BookingServiceImplTest {
         assertEquals("Wrong booking time", ex.getMessage());
     }
 
+    @Test
+    void addBooking_whenBookingIsValid_thenLoadUserAndItemOnce() {
+        LocalDateTime newStart = LocalDateTime.now().plusDays(1);
+        BookingRequest newBookingRequest = new BookingRequest(item.getId(), newStart, newStart.plusDays(1));
+
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+
+        BookingDto bookingDto = bookingService.addBooking(user.getId(), newBookingRequest);
+
+        assertEquals(BookingStatus.WAITING, bookingDto.getStatus());
+        assertEquals(item.getId(), bookingDto.getItem().getId());
+        assertEquals(user.getId(), bookingDto.getBooker().getId());
+        verify(userRepository, times(1)).findById(user.getId());
+        verify(itemRepository, times(1)).findById(item.getId());
+    }
+
+    @Test
+    void addBooking_whenItemIsAlreadyBookedForThisTime_thenReturnItemIsNotAvailable() {
+        LocalDateTime newStart = LocalDateTime.now().plusDays(1);
+        LocalDateTime newEnd = newStart.plusDays(1);
+        BookingRequest newBookingRequest = new BookingRequest(item.getId(), newStart, newEnd);
+
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                item.getId(), List.of(BookingStatus.WAITING, BookingStatus.APPROVED), newEnd, newStart))
+                .thenReturn(true);
+
+        ItemIsNotAvailable ex = assertThrows(ItemIsNotAvailable.class,
+                () -> bookingService.addBooking(user.getId(), newBookingRequest));
+        assertEquals("Item is already booked for this time", ex.getMessage());
+    }
+
+    @Test
+    void addBooking_whenBookingIsValid_thenIncrementItemBookingVersion() {
+        LocalDateTime newStart = LocalDateTime.now().plusDays(1);
+        BookingRequest newBookingRequest = new BookingRequest(item.getId(), newStart, newStart.plusDays(1));
+
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(summaryRepository.findBookingVersions(Set.of(item.getId())))
+                .thenReturn(List.of(new ItemBookingVersion(item.getId(), 4L)));
+
+        bookingService.addBooking(user.getId(), newBookingRequest);
+
+        verify(summaryRepository, times(1)).incrementBookingVersion(item.getId(), 4L);
+        verify(summaryRepository, never()).saveAllAndFlush(any());
+    }
+
+    @Test
+    void addBooking_whenItemHasNoSummary_thenCreateItBeforeBooking() {
+        LocalDateTime newStart = LocalDateTime.now().plusDays(1);
+        BookingRequest newBookingRequest = new BookingRequest(item.getId(), newStart, newStart.plusDays(1));
+
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(summaryRepository.findBookingVersions(Set.of(item.getId()))).thenReturn(Collections.emptyList());
+
+        bookingService.addBooking(user.getId(), newBookingRequest);
+
+        verify(summaryRepository, times(1)).saveAllAndFlush(any());
+        verify(summaryRepository, times(1)).incrementBookingVersion(item.getId(), 0L);
+    }
+
+    @Test
+    void addBooking_whenOverlappingBookingIsAddedConcurrently_thenRetryAndReturnItemIsNotAvailable() {
+        LocalDateTime newStart = LocalDateTime.now().plusDays(1);
+        LocalDateTime newEnd = newStart.plusDays(1);
+        BookingRequest newBookingRequest = new BookingRequest(item.getId(), newStart, newEnd);
+
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(summaryRepository.incrementBookingVersion(item.getId(), 0L)).thenReturn(0);
+        when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                item.getId(), List.of(BookingStatus.WAITING, BookingStatus.APPROVED), newEnd, newStart))
+                .thenReturn(false, true);
+
+        assertThrows(ItemIsNotAvailable.class, () -> bookingService.addBooking(user.getId(), newBookingRequest));
+        verify(transactionOperations, times(2)).execute(any());
+        verify(bookingEventRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void setBookingStatus_whenApprovedBookingOverlaps_thenReturnItemIsNotAvailable() {
+        bookingCurrent.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findById(bookingCurrent.getId())).thenReturn(Optional.of(bookingCurrent));
+        when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(item.getId(),
+                List.of(BookingStatus.APPROVED), bookingCurrent.getEnd(), bookingCurrent.getStart()))
+                .thenReturn(true);
+
+        ItemIsNotAvailable ex = assertThrows(ItemIsNotAvailable.class,
+                () -> bookingService.setBookingStatus(owner.getId(), bookingCurrent.getId(), true));
+        assertEquals("Item is already booked for this time", ex.getMessage());
+        assertEquals(BookingStatus.WAITING, bookingCurrent.getStatus());
+    }
+
     @Test
     void setBookingStatus_whenOwnerApprovedBooking_thenReturnBookingWithStatusApproved() {
         bookingCurrent.setStatus(BookingStatus.WAITING);
         when(bookingRepository.findById(bookingCurrent.getId())).thenReturn(Optional.of(bookingCurrent));
-        when(bookingRepository.save(bookingCurrent)).thenReturn(bookingCurrent);
+        when(bookingRepository.updateStatus(bookingCurrent.getId(), BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(1);
+        doAnswer(invocation -> {
+            bookingCurrent.setStatus(BookingStatus.APPROVED);
+            return null;
+        }).when(entityManager).refresh(bookingCurrent);
+        ItemBookingSummary summary = new ItemBookingSummary(item.getId());
+        when(summaryRepository.findAllById(Set.of(item.getId()))).thenReturn(List.of(summary));
 
         BookingDto actualBooking = bookingService.setBookingStatus(owner.getId(), bookingCurrent.getId(), true);
 
-        assertEquals(bookingCurrent.getStatus(), actualBooking.getStatus());
+        assertEquals(BookingStatus.APPROVED, actualBooking.getStatus());
+        verify(summaryRepository, times(1)).incrementBookingVersion(item.getId(), 0L);
+        assertNotNull(summary.getRefreshAt());
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(BookingEventType.APPROVED, eventCaptor.getValue().getType());
+        assertEquals(bookingCurrent.getId(), eventCaptor.getValue().getBookingId());
+        assertEquals(owner.getId(), eventCaptor.getValue().getOwnerId());
+    }
+
+    @Test
+    void setBookingStatus_whenOverlappingBookingIsApprovedConcurrently_thenRetryAndReturnItemIsNotAvailable() {
+        bookingCurrent.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findById(bookingCurrent.getId())).thenReturn(Optional.of(bookingCurrent));
+        when(bookingRepository.updateStatus(bookingCurrent.getId(), BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(1);
+        when(summaryRepository.incrementBookingVersion(item.getId(), 0L)).thenReturn(0);
+        when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(item.getId(),
+                List.of(BookingStatus.APPROVED), bookingCurrent.getEnd(), bookingCurrent.getStart()))
+                .thenReturn(false, true);
+
+        assertThrows(ItemIsNotAvailable.class,
+                () -> bookingService.setBookingStatus(owner.getId(), bookingCurrent.getId(), true));
+        verify(transactionOperations, times(2)).execute(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void setBookingStatus_whenStatusChangedConcurrently_thenRetryAndReturnValidationException() {
+        bookingCurrent.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findById(bookingCurrent.getId())).thenReturn(Optional.of(bookingCurrent));
+        when(bookingRepository.updateStatus(bookingCurrent.getId(), BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenAnswer(invocation -> {
+                    bookingCurrent.setStatus(BookingStatus.APPROVED);
+                    return 0;
+                });
+
+        ValidationException ex = assertThrows(ValidationException.class,
+                () -> bookingService.setBookingStatus(owner.getId(), bookingCurrent.getId(), true));
+        assertEquals("Booking is already confirmed", ex.getMessage());
+        verify(transactionOperations, times(2)).execute(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void setBookingStatus_whenConflictRepeats_thenReturnConcurrentUpdateException() {
+        bookingCurrent.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findById(bookingCurrent.getId())).thenReturn(Optional.of(bookingCurrent));
+        when(bookingRepository.updateStatus(bookingCurrent.getId(), BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(0);
+
+        assertThrows(ConcurrentUpdateException.class,
+                () -> bookingService.setBookingStatus(owner.getId(), bookingCurrent.getId(), true));
+        verify(transactionOperations, times(3)).execute(any());
     }
 
     @Test
     void setBookingStatus_whenOwnerRejectedBooking_thenReturnBookingWithStatusRejected() {
         bookingCurrent.setStatus(BookingStatus.WAITING);
         when(bookingRepository.findById(bookingCurrent.getId())).thenReturn(Optional.of(bookingCurrent));
-        when(bookingRepository.save(bookingCurrent)).thenReturn(bookingCurrent);
+        when(bookingRepository.updateStatus(bookingCurrent.getId(), BookingStatus.WAITING, BookingStatus.REJECTED))
+                .thenReturn(1);
+        doAnswer(invocation -> {
+            bookingCurrent.setStatus(BookingStatus.REJECTED);
+            return null;
+        }).when(entityManager).refresh(bookingCurrent);
 
         BookingDto actualBooking = bookingService.setBookingStatus(owner.getId(), bookingCurrent.getId(), false);
 
-        assertEquals(bookingCurrent.getStatus(), actualBooking.getStatus());
+        assertEquals(BookingStatus.REJECTED, actualBooking.getStatus());
+        verify(summaryRepository, never()).incrementBookingVersion(anyLong(), anyLong());
+        verify(summaryRepository, never()).findAllById(any());
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(BookingEventType.REJECTED, eventCaptor.getValue().getType());
     }
 
     @Test
@@ -288,6 +543,110 @@ public class BookingServiceImplTest {
         assertEquals("User is not the owner of the item", ex.getMessage());
     }
 
+    @Test
+    void addBookings_whenAllRequestsAreValid_thenSaveThemInOneCall() {
+        LocalDateTime newStart = LocalDateTime.now().plusDays(1);
+        List<BookingRequest> requests = List.of(
+                new BookingRequest(item.getId(), newStart, newStart.plusHours(1)),
+                new BookingRequest(item.getId(), newStart.plusHours(2), newStart.plusHours(3)));
+
+        when(itemRepository.findAllById(Set.of(item.getId()))).thenReturn(List.of(item));
+
+        List<BookingDto> bookings = bookingService.addBookings(user.getId(), requests);
+
+        assertEquals(2, bookings.size());
+        assertEquals(BookingStatus.WAITING, bookings.get(1).getStatus());
+        verify(bookingRepository, times(1)).saveAll(any());
+        verify(bookingRepository, times(1)).findAllOverlapping(Set.of(item.getId()),
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), newStart.plusHours(3), newStart);
+        verify(bookingEventRepository, times(1)).saveAll(any());
+        verify(eventPublisher, times(2)).publishEvent(any(BookingEvent.class));
+    }
+
+    @Test
+    void addBookings_whenRequestsOverlapEachOther_thenReturnItemIsNotAvailable() {
+        LocalDateTime newStart = LocalDateTime.now().plusDays(1);
+        List<BookingRequest> requests = List.of(
+                new BookingRequest(item.getId(), newStart, newStart.plusHours(2)),
+                new BookingRequest(item.getId(), newStart.plusHours(1), newStart.plusHours(3)));
+
+        when(itemRepository.findAllById(Set.of(item.getId()))).thenReturn(List.of(item));
+
+        ItemIsNotAvailable ex = assertThrows(ItemIsNotAvailable.class,
+                () -> bookingService.addBookings(user.getId(), requests));
+        assertEquals("Item is already booked for this time", ex.getMessage());
+    }
+
+    @Test
+    void addBookings_whenItemIsNotFound_thenReturnEntityNotFoundException() {
+        LocalDateTime newStart = LocalDateTime.now().plusDays(1);
+        List<BookingRequest> requests = List.of(new BookingRequest(0L, newStart, newStart.plusHours(1)));
+
+        when(itemRepository.findAllById(Set.of(0L))).thenReturn(List.of());
+
+        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
+                () -> bookingService.addBookings(user.getId(), requests));
+        assertEquals("No item with id " + 0L, ex.getMessage());
+    }
+
+    @Test
+    void setBookingsStatus_whenOwnerApprovesBookings_thenReturnApprovedBookings() {
+        bookingCurrent.setStatus(BookingStatus.WAITING);
+        bookingFuture.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(List.of(bookingFuture.getId(), bookingCurrent.getId())))
+                .thenReturn(List.of(bookingCurrent, bookingFuture));
+
+        List<BookingDto> bookings = bookingService.setBookingsStatus(owner.getId(),
+                List.of(bookingFuture.getId(), bookingCurrent.getId()), true);
+
+        assertEquals(2, bookings.size());
+        assertEquals(bookingFuture.getId(), bookings.get(0).getId());
+        assertEquals(BookingStatus.APPROVED, bookings.get(0).getStatus());
+        assertEquals(BookingStatus.APPROVED, bookingCurrent.getStatus());
+        verify(bookingRepository, times(1)).saveAll(List.of(bookingFuture, bookingCurrent));
+        verify(summaryRepository, times(1)).findBookingVersions(Set.of(item.getId()));
+        verify(summaryRepository, times(1)).incrementBookingVersion(item.getId(), 0L);
+        verify(eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+        assertEquals(BookingEventType.APPROVED, eventCaptor.getValue().getType());
+    }
+
+    @Test
+    void setBookingsStatus_whenApprovedBookingOverlaps_thenReturnItemIsNotAvailable() {
+        bookingFuture.setStatus(BookingStatus.WAITING);
+        Booking approved = new Booking(4L, bookingFuture.getStart().minusMinutes(30),
+                bookingFuture.getStart().plusMinutes(30), item, user, 2L, BookingStatus.APPROVED,
+                BookingPhase.FUTURE, 0L);
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(List.of(bookingFuture.getId())))
+                .thenReturn(List.of(bookingFuture));
+        when(bookingRepository.findAllOverlapping(Set.of(item.getId()), List.of(BookingStatus.APPROVED),
+                bookingFuture.getEnd(), bookingFuture.getStart())).thenReturn(List.of(approved));
+
+        ItemIsNotAvailable ex = assertThrows(ItemIsNotAvailable.class,
+                () -> bookingService.setBookingsStatus(owner.getId(), List.of(bookingFuture.getId()), true));
+        assertEquals("Item is already booked for this time", ex.getMessage());
+        assertEquals(BookingStatus.WAITING, bookingFuture.getStatus());
+    }
+
+    @Test
+    void setBookingsStatus_whenUserIsNotTheOwnerOfTheItem_thenReturnOwnerException() {
+        bookingFuture.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(List.of(bookingFuture.getId())))
+                .thenReturn(List.of(bookingFuture));
+
+        OwnerException ex = assertThrows(OwnerException.class,
+                () -> bookingService.setBookingsStatus(user.getId(), List.of(bookingFuture.getId()), false));
+        assertEquals("User is not the owner of the item", ex.getMessage());
+    }
+
+    @Test
+    void setBookingsStatus_whenBookingIsNotFound_thenReturnEntityNotFoundException() {
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(List.of(0L))).thenReturn(List.of());
+
+        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
+                () -> bookingService.setBookingsStatus(owner.getId(), List.of(0L), false));
+        assertEquals("No booking with id " + 0L, ex.getMessage());
+    }
+
     @Test
     void getBookingById() {
         when(bookingRepository.findById(bookingCurrent.getId())).thenReturn(Optional.of(bookingCurrent));
@@ -328,6 +687,43 @@ public class BookingServiceImplTest {
         assertEquals("Booking is not available for viewing", ex.getMessage());
     }
 
+    @Test
+    void exportBookerBookings_whenUserFound_thenPassEveryBookingToConsumer() {
+        when(bookingRepository.findAllByBookerIdOrderByStartDesc(eq(user.getId()), any())).thenReturn(new SliceImpl<>(
+                List.of(BookingMapper.toBookingDto(bookingFuture), BookingMapper.toBookingDto(bookingCurrent))));
+        List<BookingDto> exported = new ArrayList<>();
+
+        bookingService.exportBookerBookings(user.getId(), exported::add);
+
+        assertEquals(List.of(bookingFuture.getId(), bookingCurrent.getId()),
+                List.of(exported.get(0).getId(), exported.get(1).getId()));
+        verify(bookingRepository, never()).findAllByBookerIdBeforeCursor(anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void exportBookerItemsBookings_whenMoreBookingsThanChunk_thenReadNextChunkAfterLastBooking() {
+        BookingDto last = BookingMapper.toBookingDto(bookingCurrent);
+        List<BookingDto> firstChunk = new ArrayList<>(Collections.nCopies(499, BookingMapper.toBookingDto(bookingFuture)));
+        firstChunk.add(last);
+        when(bookingRepository.findAllByOwnerIdOrderByStartDesc(eq(owner.getId()), any()))
+                .thenReturn(new SliceImpl<>(firstChunk));
+        when(bookingRepository.findAllByOwnerIdBeforeCursor(eq(owner.getId()), eq(last.getStart()), eq(last.getId()),
+                any())).thenReturn(List.of(BookingMapper.toBookingDto(bookingPast)));
+        List<BookingDto> exported = new ArrayList<>();
+
+        bookingService.exportBookerItemsBookings(owner.getId(), exported::add);
+
+        assertEquals(501, exported.size());
+        assertEquals(bookingPast.getId(), exported.get(500).getId());
+        verify(transactionOperations, times(2)).execute(any());
+    }
+
+    @Test
+    void exportBookerBookings_whenUserNotFound_thenReturnEntityNotFoundException() {
+        assertThrows(EntityNotFoundException.class,
+                () -> bookingService.exportBookerBookings(0L, booking -> { }));
+    }
+
     private User setUser(Long id, String name, String email) {
         User newUser = new User();
         newUser.setId(id);
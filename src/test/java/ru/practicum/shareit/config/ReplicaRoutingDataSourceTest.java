@@ -0,0 +1,126 @@
+package ru.practicum.shareit.config;
+
+import lombok.AccessLevel;
+import lombok.SneakyThrows;
+import lombok.experimental.FieldDefaults;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replica.username=test",
+        "shareit.datasource.replica.password=test"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class ReplicaRoutingDataSourceTest {
+    @Autowired
+    UserService userService;
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+    JdbcTemplate primary;
+    JdbcTemplate replica;
+
+    @BeforeEach
+    void start() {
+        Flyway.configure().dataSource(replicaDataSource).cleanDisabled(false).load().clean();
+        Flyway.configure().dataSource(replicaDataSource).load().migrate();
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        primary.update("delete from users");
+    }
+
+    @Test
+    void addUser_thenWriteToPrimary() {
+        userService.addUser(UserDto.builder().name("user").email("user@user.com").build());
+
+        assertThat(primary.queryForObject("select count(*) from users", Integer.class), is(1));
+        assertThat(replica.queryForObject("select count(*) from users", Integer.class), is(0));
+    }
+
+    @Test
+    void getAllUsers_thenReadFromReplica() {
+        userService.addUser(UserDto.builder().name("user").email("user@user.com").build());
+        assertThat(userService.getAllUsers(), is(empty()));
+
+        replica.update("insert into users (id, name, email) values (1, 'replica', 'replica@user.com')");
+
+        assertThat(userService.getAllUsers().stream().map(UserDto::getName).collect(Collectors.toList()),
+                contains("replica"));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllUsers_whenClientHasJustWritten_thenReadFromPrimary() {
+        Cookie lastWrite = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"user\",\"email\":\"user@user.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists(ReplicaPinningInterceptor.LAST_WRITE_COOKIE))
+                .andReturn().getResponse().getCookie(ReplicaPinningInterceptor.LAST_WRITE_COOKIE);
+
+        mockMvc.perform(get("/users").cookie(lastWrite))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllUsers_whenLastWriteIsOlderThanWindow_thenReadFromReplica() {
+        userService.addUser(UserDto.builder().name("user").email("user@user.com").build());
+        Cookie lastWrite = new Cookie(ReplicaPinningInterceptor.LAST_WRITE_COOKIE,
+                String.valueOf(System.currentTimeMillis() - Duration.ofMinutes(1).toMillis()));
+
+        mockMvc.perform(get("/users").cookie(lastWrite))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllUsers_whenLastWriteCookieIsMalformed_thenReadFromReplica() {
+        userService.addUser(UserDto.builder().name("user").email("user@user.com").build());
+
+        mockMvc.perform(get("/users").cookie(new Cookie(ReplicaPinningInterceptor.LAST_WRITE_COOKIE, "soon")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.boot.test.json.JsonContent;
 import ru.practicum.shareit.item.dto.CommentDto;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -31,6 +32,6 @@ class CommentDtoTest {
         assertThat(result).extractingJsonPathNumberValue("$.id").isEqualTo(1);
         assertThat(result).extractingJsonPathStringValue("$.text").isEqualTo("comment");
         assertThat(result).extractingJsonPathStringValue("$.authorName").isEqualTo("authorName");
-        assertThat(result).extractingJsonPathStringValue("$.created").isEqualTo(createdTime.toString());
+        assertThat(result).extractingJsonPathStringValue("$.created").isEqualTo(createdTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
     }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.item;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.booking.service.BookingEventDispatcher;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithDates;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Transactional
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class ItemBookingSummaryServiceImplTest {
+
+    @Autowired
+    ItemBookingSummaryService itemBookingSummaryService;
+
+    @Autowired
+    ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    BookingEventDispatcher bookingEventDispatcher;
+
+    UserDto owner;
+
+    UserDto booker;
+
+    ItemDto itemDto;
+
+    @BeforeEach
+    void start() {
+        owner = userService.addUser(UserDto.builder().name("owner").email("owner@user.com").build());
+        booker = userService.addUser(UserDto.builder().name("booker").email("booker@user.com").build());
+        itemDto = itemService.addItem(owner.getId(),
+                ItemDto.builder().name("item").description("desc").available(true).build());
+    }
+
+    @Test
+    void addItem_thenCreateEmptySummary() {
+        ItemBookingSummary summary = itemBookingSummaryRepository.findById(itemDto.getId()).orElseThrow();
+
+        assertThat(summary.getLastBookingId(), is(nullValue()));
+        assertThat(summary.getNextBookingId(), is(nullValue()));
+        assertThat(summary.getRefreshAt(), is(nullValue()));
+    }
+
+    @Test
+    void setBookingStatus_whenBookingIsApproved_thenSummaryHasNextBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        BookingDto bookingDto = addBooking(start);
+        approveBooking(bookingDto);
+
+        ItemBookingSummary summary = itemBookingSummaryRepository.findById(itemDto.getId()).orElseThrow();
+
+        assertThat(summary.getNextBookingId(), is(bookingDto.getId()));
+        assertThat(summary.getNextBookerId(), is(booker.getId()));
+        assertThat(summary.getRefreshAt(), is(start));
+        assertThat(summary.getLastBookingId(), is(nullValue()));
+    }
+
+    @Test
+    void setBookingStatus_whenBookingIsRejected_thenSummaryIsUnchanged() {
+        BookingDto bookingDto = addBooking(LocalDateTime.now().plusDays(1));
+        bookingService.setBookingStatus(owner.getId(), bookingDto.getId(), false);
+
+        assertThat(itemBookingSummaryRepository.findById(itemDto.getId()).orElseThrow().getNextBookingId(),
+                is(nullValue()));
+    }
+
+    @Test
+    void refreshDueSummaries_whenNextBookingHasStarted_thenItBecomesLastBooking() throws InterruptedException {
+        BookingDto bookingDto = addBooking(LocalDateTime.now().plusSeconds(1));
+        approveBooking(bookingDto);
+        TimeUnit.SECONDS.sleep(2);
+
+        assertThat(itemBookingSummaryService.refreshDueSummaries(), is(1));
+        ItemBookingSummary summary = itemBookingSummaryRepository.findById(itemDto.getId()).orElseThrow();
+        assertThat(summary.getLastBookingId(), is(bookingDto.getId()));
+        assertThat(summary.getNextBookingId(), is(nullValue()));
+        assertThat(summary.getRefreshAt(), is(nullValue()));
+        assertThat(itemBookingSummaryService.refreshDueSummaries(), is(0));
+    }
+
+    @Test
+    void getItemById_whenSummaryIsDue_thenRefreshItBeforeReading() throws InterruptedException {
+        BookingDto bookingDto = addBooking(LocalDateTime.now().plusSeconds(1));
+        approveBooking(bookingDto);
+        TimeUnit.SECONDS.sleep(2);
+
+        ItemWithDates item = itemService.getItemById(owner.getId(), itemDto.getId());
+
+        assertThat(item.getLastBooking().getId(), is(bookingDto.getId()));
+        assertThat(item.getNextBooking(), is(nullValue()));
+    }
+
+    @Test
+    void getUserItems_whenSummaryIsMissing_thenComputeItWithoutWriting() {
+        BookingDto bookingDto = addBooking(LocalDateTime.now().plusDays(1));
+        approveBooking(bookingDto);
+        itemBookingSummaryRepository.deleteById(itemDto.getId());
+
+        assertThat(itemService.getUserItems(owner.getId(), 0, 10).get(0).getNextBooking().getId(),
+                is(bookingDto.getId()));
+        assertThat(itemBookingSummaryRepository.findById(itemDto.getId()), is(Optional.empty()));
+    }
+
+    @Test
+    void getItemById_whenSummaryIsDue_thenLeaveRefreshToTheJob() throws InterruptedException {
+        BookingDto bookingDto = addBooking(LocalDateTime.now().plusSeconds(1));
+        approveBooking(bookingDto);
+        TimeUnit.SECONDS.sleep(2);
+
+        itemService.getItemById(owner.getId(), itemDto.getId());
+
+        assertThat(itemBookingSummaryRepository.findById(itemDto.getId()).orElseThrow().getNextBookingId(),
+                is(bookingDto.getId()));
+        assertThat(itemBookingSummaryService.refreshDueSummaries(), is(1));
+    }
+
+    @Test
+    void updateSummary_whenBookingVersionHasChanged_thenLeaveSummaryUnchanged() {
+        LocalDateTime refreshAt = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        ItemBookingSummary summary = ItemBookingSummary.builder().itemId(itemDto.getId()).refreshAt(refreshAt).build();
+
+        assertThat(itemBookingSummaryRepository.updateSummary(summary, 1L), is(0));
+        assertThat(itemBookingSummaryRepository.findById(itemDto.getId()).orElseThrow().getRefreshAt(),
+                is(nullValue()));
+        assertThat(itemBookingSummaryRepository.updateSummary(summary, 0L), is(1));
+        assertThat(itemBookingSummaryRepository.findById(itemDto.getId()).orElseThrow().getRefreshAt(),
+                is(refreshAt));
+    }
+
+    private void approveBooking(BookingDto bookingDto) {
+        bookingService.setBookingStatus(owner.getId(), bookingDto.getId(), true);
+        bookingEventDispatcher.dispatchPending();
+    }
+
+    private BookingDto addBooking(LocalDateTime start) {
+        return bookingService.addBooking(booker.getId(), new BookingRequest(itemDto.getId(), start, start.plusDays(1)));
+    }
+}
@@ -15,6 +15,9 @@ import ru.practicum.shareit.booking.dto.BookingForItem;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportError;
+import ru.practicum.shareit.item.dto.ItemImportFormat;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.dto.ItemWithDates;
 import ru.practicum.shareit.item.service.ItemService;
 
@@ -187,4 +190,51 @@ class ItemControllerTest {
         assertEquals(objectMapper.writeValueAsString(comment), result);
         verify(itemService).addComment(anyLong(), anyLong(), any());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void importItems_whenBodyIsNdjson_thenReturnImportResult() {
+        ItemImportResult importResult = new ItemImportResult();
+        importResult.setImported(1);
+        importResult.setFailed(1);
+        importResult.getErrors().add(new ItemImportError(2, "name must not be blank"));
+        when(itemService.importItems(anyLong(), any(), any())).thenReturn(importResult);
+
+        mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(ItemImportFormat.NDJSON_VALUE)
+                        .content("{\"name\":\"item\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(2)));
+
+        verify(itemService).importItems(eq(1L), eq(ItemImportFormat.NDJSON), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_whenBodyIsCsvWithCharset_thenUseCsvFormat() {
+        when(itemService.importItems(anyLong(), any(), any())).thenReturn(new ItemImportResult());
+
+        mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType("text/csv;charset=UTF-8")
+                        .content("name,description,available\n"))
+                .andExpect(status().isOk());
+
+        verify(itemService).importItems(eq(1L), eq(ItemImportFormat.CSV), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_whenContentTypeIsJson_thenReturnBadRequest() {
+        mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemService);
+    }
+}
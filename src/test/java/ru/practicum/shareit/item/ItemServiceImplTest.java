@@ -17,12 +17,21 @@ import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportError;
+import ru.practicum.shareit.item.dto.ItemImportFormat;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.dto.ItemWithDates;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.concurrent.TimeUnit;
 
@@ -131,6 +140,20 @@ class ItemServiceImplTest {
         assertThat(itemService.getUserItems(owner.getId(), 0, 10).get(0).getComments(), is(empty()));
     }
 
+    @Test
+    void getUserItems_whenItemHasApprovedFutureBooking_thenReturnNextBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto bookingDto = bookingService.addBooking(userDto.getId(),
+                new BookingRequest(itemDto.getId(), start, start.plusDays(1)));
+        bookingService.setBookingStatus(owner.getId(), bookingDto.getId(), true);
+
+        ItemWithDates item = itemService.getUserItems(owner.getId(), 0, 10).get(0);
+
+        assertThat(item.getLastBooking(), is(nullValue()));
+        assertThat(item.getNextBooking().getId(), is(bookingDto.getId()));
+        assertThat(item.getNextBooking().getBookerId(), is(userDto.getId()));
+    }
+
     @Test
     void getUserItems_whenUserNotFound_thenReturnEntityNotFoundException() {
         assertThrows(EntityNotFoundException.class,
@@ -156,6 +179,143 @@ class ItemServiceImplTest {
         assertThat(itemService.searchItems("", 0, 10), hasSize(0));
     }
 
+    @Test
+    void searchItems_whenTextMatchesDescriptionInOtherCase_ReturnListOfItems() {
+        assertThat(itemService.searchItems("DeS", 0, 10), hasSize(1));
+        assertThat(itemService.searchItems("DeS", 0, 10).get(0).getId(), is(itemDto.getId()));
+    }
+
+    @Test
+    void searchItems_whenMatchingItemIsNotAvailable_ReturnEmptyListOfItems() {
+        itemDto.setAvailable(false);
+        itemService.updateItem(owner.getId(), itemDto.getId(), itemDto);
+
+        assertThat(itemService.searchItems("item", 0, 10), is(empty()));
+    }
+
+    @Test
+    void searchItems_whenMoreMatchesThanPageSize_ReturnRequestedPage() {
+        itemService.addItem(owner.getId(), ItemDto.builder().name("other").description("item desc").available(true).build());
+        itemService.addItem(owner.getId(), ItemDto.builder().name("hidden item").description("desc").available(false).build());
+
+        assertThat(itemService.searchItems("item", 0, 1), hasSize(1));
+        assertThat(itemService.searchItems("item", 1, 1), hasSize(1));
+        assertThat(itemService.searchItems("item", 2, 1), is(empty()));
+    }
+
+    @Test
+    void searchItems_whenTextHasLikeWildcards_thenMatchThemLiterally() {
+        ItemDto discount = itemService.addItem(owner.getId(),
+                ItemDto.builder().name("drill 50% off").description("power_tool c:\\tools").available(true).build());
+
+        assertThat(itemService.searchItems("%", 0, 10), contains(hasProperty("id", is(discount.getId()))));
+        assertThat(itemService.searchItems("_", 0, 10), contains(hasProperty("id", is(discount.getId()))));
+        assertThat(itemService.searchItems("c:\\", 0, 10), contains(hasProperty("id", is(discount.getId()))));
+        assertThat(itemService.searchItems("it_m", 0, 10), is(empty()));
+    }
+
+    @Test
+    void importItems_whenNdjsonHasInvalidRows_thenImportValidRowsAndReportErrors() {
+        String body = "{\"name\":\"drill\",\"description\":\"cordless\",\"available\":true}\n"
+                + "{\"name\":\"\",\"description\":\"no name\",\"available\":true}\n"
+                + "\n"
+                + "{\"name\":\"saw\",\"description\":\"hand saw\",\"available\":false}\n"
+                + "{not json}\n";
+
+        ItemImportResult result = itemService.importItems(owner.getId(), ItemImportFormat.NDJSON, toStream(body));
+
+        assertThat(result.getImported(), is(2L));
+        assertThat(result.getFailed(), is(2L));
+        assertThat(result.getErrors().get(0), equalTo(new ItemImportError(2, "name must not be blank")));
+        assertThat(result.getErrors().get(1).getLine(), is(5L));
+        assertThat(itemService.getUserItems(owner.getId(), 0, 10), hasSize(3));
+    }
+
+    @Test
+    void importItems_whenCsvHasQuotedValues_thenImportThem() {
+        String body = "name,description,available,requestId\n"
+                + "drill,\"cordless, 18V\",true,\n"
+                + "saw,\"the \"\"best\"\" saw\",false," + itemRequestDto.getId() + "\n"
+                + "hammer,heavy,maybe,\n";
+
+        ItemImportResult result = itemService.importItems(owner.getId(), ItemImportFormat.CSV, toStream(body));
+
+        assertThat(result.getImported(), is(2L));
+        assertThat(result.getErrors(), contains(new ItemImportError(4, "Invalid available value maybe")));
+        assertThat(itemService.getUserItems(owner.getId(), 0, 10).get(1).getDescription(), is("cordless, 18V"));
+        assertThat(itemService.getUserItems(owner.getId(), 0, 10).get(2).getDescription(), is("the \"best\" saw"));
+        assertThat(itemRequestService.getRequestById(userDto.getId(), itemRequestDto.getId()).getItems(), hasSize(2));
+    }
+
+    @Test
+    void importItems_whenCsvValueSpansLines_thenImportIt() {
+        String body = "name,description,available\n"
+                + "drill,\"cordless\n18V\",true\n"
+                + "hammer,heavy,maybe\n";
+
+        ItemImportResult result = itemService.importItems(owner.getId(), ItemImportFormat.CSV, toStream(body));
+
+        assertThat(result.getImported(), is(1L));
+        assertThat(result.getErrors(), contains(new ItemImportError(4, "Invalid available value maybe")));
+        assertThat(itemService.getUserItems(owner.getId(), 0, 10).get(1).getDescription(), is("cordless\n18V"));
+    }
+
+    @Test
+    void importItems_whenValueIsLongerThanColumn_thenReportError() {
+        String body = "{\"name\":\"" + "n".repeat(101) + "\",\"description\":\"long\",\"available\":true}\n"
+                + "{\"name\":\"drill\",\"description\":\"cordless\",\"available\":true}\n";
+
+        ItemImportResult result = itemService.importItems(owner.getId(), ItemImportFormat.NDJSON, toStream(body));
+
+        assertThat(result.getImported(), is(1L));
+        assertThat(result.getErrors(), contains(new ItemImportError(1, "name size must be between 0 and 100")));
+    }
+
+    @Test
+    void importItems_whenStreamFails_thenReturnPartialResult() {
+        InputStream body = new SequenceInputStream(
+                toStream("{\"name\":\"drill\",\"description\":\"cordless\",\"available\":true}\n"),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("connection reset");
+                    }
+                });
+
+        ItemImportResult result = itemService.importItems(owner.getId(), ItemImportFormat.NDJSON, body);
+
+        assertThat(result.isInterrupted(), is(true));
+        assertThat(result.getImported(), is(1L));
+        assertThat(result.getErrors(), contains(new ItemImportError(2, "Import interrupted: connection reset")));
+        assertThat(itemService.getUserItems(owner.getId(), 0, 10), hasSize(2));
+    }
+
+    @Test
+    void importItems_whenMoreRowsThanChunkSize_thenImportAllRows() {
+        StringBuilder body = new StringBuilder("name,description,available\n");
+        for (int i = 0; i < 1200; i++) {
+            body.append("item ").append(i).append(",imported,true\n");
+        }
+
+        ItemImportResult result = itemService.importItems(owner.getId(), ItemImportFormat.CSV, toStream(body.toString()));
+
+        assertThat(result.getImported(), is(1200L));
+        assertThat(result.getFailed(), is(0L));
+        assertThat(itemService.getUserItems(owner.getId(), 1200, 1200), hasSize(1));
+    }
+
+    @Test
+    void importItems_whenCsvHeaderIsInvalid_thenReturnValidationException() {
+        assertThrows(ValidationException.class,
+                () -> itemService.importItems(owner.getId(), ItemImportFormat.CSV, toStream("title,available\n")));
+    }
+
+    @Test
+    void importItems_whenUserNotFound_thenReturnEntityNotFoundException() {
+        assertThrows(EntityNotFoundException.class,
+                () -> itemService.importItems(0L, ItemImportFormat.NDJSON, toStream("")));
+    }
+
     @Test
     void addComment() throws InterruptedException {
         LocalDateTime start = LocalDateTime.now().plusSeconds(1);
@@ -175,4 +335,8 @@ class ItemServiceImplTest {
         assertThrows(ValidationException.class,
                 () -> itemService.addComment(1L, 1L, new CommentRequest("comment")));
     }
-}
\ No newline at end of file
+
+    private ByteArrayInputStream toStream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
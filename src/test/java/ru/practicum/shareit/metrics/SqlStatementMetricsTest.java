@@ -0,0 +1,71 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class SqlStatementMetricsTest {
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    UserService userService;
+
+    @Test
+    void getUserById_whenRequestIsHandled_thenRecordSqlStatementCount() throws Exception {
+        UserDto user = userService.addUser(UserDto.builder().name("user").email("user@user.com").build());
+
+        mvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk());
+
+        DistributionSummary summary = meterRegistry.get(SqlStatementMetricsInterceptor.METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/users/{userId}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(1, summary.totalAmount());
+    }
+
+    @Test
+    void getItemById_whenItemIsNotFound_thenRecordStatementsOfFailedRequest() throws Exception {
+        UserDto user = userService.addUser(UserDto.builder().name("user").email("user@user.com").build());
+
+        mvc.perform(get("/items/{itemId}", 0L).header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isNotFound());
+
+        DistributionSummary summary = meterRegistry.get(SqlStatementMetricsInterceptor.METRIC_NAME)
+                .tag("uri", "/items/{itemId}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    void addUser_whenCalledOutsideRequest_thenCountStatementsAsBackground() {
+        userService.addUser(UserDto.builder().name("user").email("user@user.com").build());
+
+        assertTrue(meterRegistry.get(SqlStatementCounter.BACKGROUND_METRIC_NAME).counter().count() > 0);
+        assertTrue(meterRegistry.find(SqlStatementMetricsInterceptor.METRIC_NAME).summaries().isEmpty());
+    }
+}
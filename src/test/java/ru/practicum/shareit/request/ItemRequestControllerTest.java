@@ -18,6 +18,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 
@@ -99,7 +100,7 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].description", is("desc1")))
-                .andExpect(jsonPath("$[0].created", is(createdTime.toString())))
+                .andExpect(jsonPath("$[0].created", is(createdTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))))
                 .andExpect(jsonPath("$[0].items", hasSize(1)))
                 .andExpect(jsonPath("$[0].items[0].id", is(1)))
                 .andExpect(jsonPath("$[0].items[0].name", is("name1")))
@@ -119,7 +120,7 @@ class ItemRequestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(itemRequestDto.getId()), Long.class))
                 .andExpect(jsonPath("$.description", is(itemRequestDto.getDescription())))
-                .andExpect(jsonPath("$.created", is(createdTime.toString())))
+                .andExpect(jsonPath("$.created", is(createdTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))))
                 .andExpect(jsonPath("$.items", hasSize(1)));
 
         verify(itemRequestService).getRequestById(1L, 1L);
@@ -139,7 +140,7 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].description", is("desc1")))
-                .andExpect(jsonPath("$[0].created", is(createdTime.toString())))
+                .andExpect(jsonPath("$[0].created", is(createdTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))))
                 .andExpect(jsonPath("$[0].items", hasSize(1)))
                 .andExpect(jsonPath("$[0].items[0].id", is(1)))
                 .andExpect(jsonPath("$[0].items[0].name", is("name1")))
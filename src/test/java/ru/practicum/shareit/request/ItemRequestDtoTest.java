@@ -11,6 +11,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -32,7 +33,7 @@ class ItemRequestDtoTest {
 
         assertThat(result).extractingJsonPathNumberValue("$.id").isEqualTo(3);
         assertThat(result).extractingJsonPathStringValue("$.description").isEqualTo("desc");
-        assertThat(result).extractingJsonPathStringValue("$.created").isEqualTo(createdTime.toString());
+        assertThat(result).extractingJsonPathStringValue("$.created").isEqualTo(createdTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         assertThat(result).extractingJsonPathNumberValue("$.items[0].id").isEqualTo(5);
         assertThat(result).extractingJsonPathStringValue("$.items[0].name").isEqualTo("item");
         assertThat(result).extractingJsonPathStringValue("$.items[0].description").isEqualTo("item desc");
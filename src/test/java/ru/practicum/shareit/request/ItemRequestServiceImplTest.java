@@ -2,6 +2,8 @@ package ru.practicum.shareit.request;
 
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,14 +19,16 @@ import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
 import javax.validation.ValidationException;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureTestDatabase
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 @FieldDefaults(level = AccessLevel.PRIVATE)
@@ -38,6 +42,9 @@ class ItemRequestServiceImplTest {
     @Autowired
     ItemService itemService;
 
+    @Autowired
+    EntityManager entityManager;
+
     UserDto userDto;
     UserDto owner;
     ItemRequestDto itemRequestDto;
@@ -61,7 +68,8 @@ class ItemRequestServiceImplTest {
     void addItemRequest_whenUserFoundAndDescriptionNotEmpty_thenSavedRequest() {
         assertThat(userDto.getId(), notNullValue());
         assertThat(itemRequestService.getAllUserRequests(userDto.getId()), hasSize(1));
-        assertThat(itemRequestDto, equalTo(itemRequestService.getRequestById(userDto.getId(), itemRequestDto.getId())));
+        assertThat(itemRequestService.getRequestById(userDto.getId(), itemRequestDto.getId()).getDescription(),
+                equalTo(itemRequestDto.getDescription()));
     }
 
     @Test
@@ -93,7 +101,11 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestById_whenUserAndRequestFound_thenReturnedRequest() {
-        assertThat(itemRequestService.getRequestById(userDto.getId(), itemRequestDto.getId()), equalTo(itemRequestDto));
+        ItemRequestDto request = itemRequestService.getRequestById(userDto.getId(), itemRequestDto.getId());
+
+        assertThat(request.getId(), equalTo(itemRequestDto.getId()));
+        assertThat(request.getItems(), hasSize(1));
+        assertThat(request.getItems().get(0).getName(), equalTo("item"));
     }
 
     @Test
@@ -107,6 +119,25 @@ class ItemRequestServiceImplTest {
         assertThat(itemRequestService.getAllRequests(owner.getId(), 0, 10), hasSize(1));
     }
 
+    @Test
+    void getAllRequests_whenRequestsHaveItems_thenLoadItemsInOneQuery() {
+        for (int i = 0; i < 3; i++) {
+            ItemRequestDto request = itemRequestService.addItemRequest(userDto.getId(), new ItemRequestDto("request " + i));
+            itemService.addItem(owner.getId(), ItemDto.builder().name("item " + i).description("item desc")
+                    .available(true).requestId(request.getId()).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ItemRequestDto> requests = itemRequestService.getAllRequests(owner.getId(), 0, 10);
+
+        assertThat(requests, hasSize(4));
+        assertThat(requests.get(3).getItems(), hasSize(1));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(3L));
+    }
+
     @Test
     void getAllRequests_whenUserNotFound_thenReturnEntityNotFoundException() {
         assertThrows(EntityNotFoundException.class,
@@ -114,6 +114,18 @@ class UserServiceImplTest {
                 () -> userService.updateUser(2L, newUser3));
     }
 
+    @Test
+    void updateUser_whenEmailIsUnchanged_thenReturnUpdatedUser() {
+        UserDto newUser = UserDto.builder()
+                .name("updatedName")
+                .email("user1@user.com")
+                .build();
+        UserDto updatedUser = userService.updateUser(userDto.getId(), newUser);
+
+        assertThat(updatedUser.getName(), is("updatedName"));
+        assertThat(updatedUser.getEmail(), is("user1@user.com"));
+    }
+
     @Test
     void getUserById() {
         assertThat(userDto.getName(), equalTo(userService.getUserById(1L).getName()));